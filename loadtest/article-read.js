@@ -0,0 +1,39 @@
+// 文章读接口压测脚本(k6), 用于对比平台线程模式与虚拟线程模式
+// 用法: k6 run -e BASE_URL=http://localhost:8080 -e ARTICLE_IDS=1,2,3 loadtest/article-read.js
+import http from 'k6/http';
+import {check} from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ARTICLE_IDS = (__ENV.ARTICLE_IDS || '1').split(',');
+
+export const options = {
+    scenarios: {
+        burst: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                {target: 200, duration: '30s'},
+                {target: 1000, duration: '1m'},
+                {target: 1000, duration: '2m'},
+                {target: 50, duration: '30s'},
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<500', 'p(99)<1500'],
+    },
+};
+
+export default function () {
+    const articleId = ARTICLE_IDS[Math.floor(Math.random() * ARTICLE_IDS.length)];
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/article/isTop/false?page=1&size=10`],
+        ['GET', `${BASE_URL}/article/${articleId}`, null, {headers: {'Accept-Encoding': 'gzip'}}],
+        ['GET', `${BASE_URL}/article/${articleId}/counters`],
+    ]);
+    responses.forEach(response => check(response, {'status is 200': r => r.status === 200}));
+}
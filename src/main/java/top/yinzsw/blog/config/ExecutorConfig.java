@@ -1,20 +1,33 @@
 package top.yinzsw.blog.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import top.yinzsw.blog.core.maps.loader.RequestBatchLoader;
+import top.yinzsw.blog.util.VirtualThreadUtils;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 线程池配置类
+ * <p>
+ * 开启虚拟线程模式(blog.virtual-threads.enabled, 需要 JDK 21)后, Tomcat 请求处理与映射任务均运行在虚拟线程上,
+ * 阻塞的 JDBC/Redis 调用不再占用平台线程, 并发上限由数据库连接池与 Redis 连接池决定
+ * </p>
  *
  * @author yinzsW
  * @since 23/01/09
  **/
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class ExecutorConfig {
 
     @Bean
@@ -29,7 +42,54 @@ public class ExecutorConfig {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(RequestBatchLoader::decorate);
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * 映射任务线程池, 默认复用 {@link #taskExecutor()}, 虚拟线程模式下每个任务一个虚拟线程
+     */
+    @Bean
+    public Executor mappingExecutor(ThreadPoolTaskExecutor taskExecutor,
+                                    @Value("${blog.virtual-threads.enabled:false}") boolean isVirtualThreadsEnabled) {
+        if (!isVirtualThreadsEnabled) {
+            return taskExecutor::execute;
+        }
+
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(VirtualThreadUtils.newVirtualThreadPerTaskExecutor("mapping-"));
+        executor.setTaskDecorator(RequestBatchLoader::decorate);
+        return executor;
+    }
+
+    /**
+     * 映射表分组查询线程池, 限制单次查询占用的数据库连接数, 虚拟线程模式下每个任务一个虚拟线程
+     */
+    @Bean
+    public Executor mapQueryExecutor(@Value("${blog.virtual-threads.enabled:false}") boolean isVirtualThreadsEnabled) {
+        if (isVirtualThreadsEnabled) {
+            TaskExecutorAdapter executor = new TaskExecutorAdapter(VirtualThreadUtils.newVirtualThreadPerTaskExecutor("map-query-"));
+            executor.setTaskDecorator(RequestBatchLoader::decorate);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(256);
+        executor.setThreadNamePrefix("map-query-");
+        executor.setKeepAliveSeconds(30);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(RequestBatchLoader::decorate);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.virtual-threads.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        Executor executor = VirtualThreadUtils.newVirtualThreadPerTaskExecutor("http-");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
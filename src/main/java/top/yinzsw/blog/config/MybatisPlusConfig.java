@@ -7,6 +7,14 @@ import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerIntercept
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import top.yinzsw.blog.extension.mybatisplus.CachedPaginationInnerInterceptor;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.model.po.ArticlePO;
+import top.yinzsw.blog.model.po.CategoryPO;
+import top.yinzsw.blog.model.po.FriendLinkPO;
+import top.yinzsw.blog.model.po.TagPO;
+
+import java.util.Set;
 
 /**
  * mybatis plus配置
@@ -19,19 +27,21 @@ import org.springframework.context.annotation.Configuration;
 public class MybatisPlusConfig {
 
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(TableVersionManager tableVersionManager) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        interceptor.addInnerInterceptor(getPaginationInnerInterceptor());
+        interceptor.addInnerInterceptor(getPaginationInnerInterceptor(tableVersionManager));
         return interceptor;
     }
 
     /**
-     * mybatis分页拦截器
+     * mybatis分页拦截器, 文章, 标签, 分类, 友链表的分页计数会被缓存
      *
+     * @param tableVersionManager 表版本管理
      * @return 拦截器对象
      */
-    private InnerInterceptor getPaginationInnerInterceptor() {
-        var pagination = new PaginationInnerInterceptor();
+    private InnerInterceptor getPaginationInnerInterceptor(TableVersionManager tableVersionManager) {
+        Set<Class<?>> cacheableEntityClasses = Set.of(ArticlePO.class, TagPO.class, CategoryPO.class, FriendLinkPO.class);
+        PaginationInnerInterceptor pagination = new CachedPaginationInnerInterceptor(tableVersionManager, cacheableEntityClasses);
         pagination.setDbType(DbType.MYSQL);
         pagination.setMaxLimit(30L);
         return pagination;
@@ -2,21 +2,41 @@ package top.yinzsw.blog.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import top.yinzsw.blog.core.context.HttpContext;
+import top.yinzsw.blog.enums.TagMatchEnum;
 import top.yinzsw.blog.extension.validation.MatchFileType;
+import top.yinzsw.blog.extension.web.VersionedResource;
+import top.yinzsw.blog.model.dto.ArticlePayloadDTO;
+import top.yinzsw.blog.model.po.ArticlePO;
+import top.yinzsw.blog.model.po.CategoryPO;
+import top.yinzsw.blog.model.po.TagPO;
+import top.yinzsw.blog.model.request.ArchiveTimelineReq;
 import top.yinzsw.blog.model.request.ArticleQueryReq;
 import top.yinzsw.blog.model.request.ArticleReq;
+import top.yinzsw.blog.model.request.CursorReq;
 import top.yinzsw.blog.model.request.PageReq;
 import top.yinzsw.blog.model.vo.*;
 import top.yinzsw.blog.service.ArticleService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 文章控制器
@@ -31,8 +51,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ArticleController {
     private final ArticleService articleService;
+    private final HttpContext httpContext;
 
     @Operation(summary = "搜索相关文章")
+    @VersionedResource(ArticlePO.class)
     @GetMapping("keywords/{keywords}")
     public List<ArticleSearchVO> listSearchArticles(@Parameter(description = "搜索关键字", required = true)
                                                     @PathVariable("keywords") String keywords) {
@@ -40,27 +62,71 @@ public class ArticleController {
     }
 
     @Operation(summary = "查看文章归档")
+    @VersionedResource(ArticlePO.class)
     @GetMapping("archives")
     public PageVO<ArticleArchiveVO> pageArchivesArticles(@Valid PageReq pageReq) {
         return articleService.pageArchivesArticles(pageReq);
     }
 
-    @Operation(summary = "查看文章详情")
+    @Operation(summary = "查看文章归档(游标分页)")
+    @VersionedResource(ArticlePO.class)
+    @GetMapping("archives/cursor")
+    public CursorPageVO<ArticleArchiveVO> cursorArchivesArticles(@Valid CursorReq cursorReq) {
+        return articleService.cursorArchivesArticles(cursorReq);
+    }
+
+    @Operation(summary = "查看文章归档时间线")
+    @VersionedResource(ArticlePO.class)
+    @GetMapping("archives/timeline")
+    public List<ArticleArchiveMonthVO> listArchiveTimeline(@Valid ArchiveTimelineReq archiveTimelineReq) {
+        return articleService.listArchiveTimeline(archiveTimelineReq);
+    }
+
+    @Operation(summary = "查看热门文章")
+    @GetMapping("hot")
+    public List<ArticleOutlineVO> listHotArticles(@Parameter(description = "数量")
+                                                  @RequestParam(value = "size", defaultValue = "10")
+                                                  @Min(value = 1, message = "条数不能少于 {value}")
+                                                  @Max(value = 30, message = "条数不能多于 {value}") Integer size) {
+        return articleService.listHotArticles(size);
+    }
+
+    @Operation(summary = "查看文章详情", description = "不包含点赞量与浏览量, 通过计数接口获取",
+            responses = @ApiResponse(content = @Content(schema = @Schema(implementation = ArticleVO.class))))
     @GetMapping("{articleId:\\d+}")
-    public ArticleVO getArticle(@Parameter(description = "文章id", required = true)
-                                @PathVariable("articleId") Long articleId) {
-        return articleService.getArticle(articleId);
+    public void getArticle(@Parameter(description = "文章id", required = true)
+                           @PathVariable("articleId") Long articleId) {
+        ArticlePayloadDTO articlePayloadDTO = articleService.getArticlePayload(articleId);
+        httpContext.setResponseBody(articlePayloadDTO.getVersion(), articlePayloadDTO.getJsonBytes(), articlePayloadDTO.getGzipBytes());
+    }
+
+    @Operation(summary = "查看文章点赞量与浏览量")
+    @GetMapping("{articleId:\\d+}/counters")
+    public ArticleCounterVO getArticleCounters(@Parameter(description = "文章id", required = true)
+                                               @PathVariable("articleId") Long articleId) {
+        return articleService.getArticleCounters(articleId);
     }
 
     @Operation(summary = "查看文章列表")
+    @VersionedResource({ArticlePO.class, CategoryPO.class, TagPO.class})
     @GetMapping("isTop/{isTop:true|false}")
-    public PageVO<ArticleDigestVO> pageArticles(@Valid PageReq pageReq,
-                                                @Parameter(description = "是否置顶", required = true)
-                                                @PathVariable("isTop") Boolean isTop) {
+    public CompletableFuture<PageVO<ArticleDigestVO>> pageArticles(@Valid PageReq pageReq,
+                                                                   @Parameter(description = "是否置顶", required = true)
+                                                                   @PathVariable("isTop") Boolean isTop) {
         return articleService.pageArticles(pageReq, isTop);
     }
 
+    @Operation(summary = "查看文章列表(游标分页)")
+    @VersionedResource({ArticlePO.class, CategoryPO.class, TagPO.class})
+    @GetMapping("isTop/{isTop:true|false}/cursor")
+    public CompletableFuture<CursorPageVO<ArticleDigestVO>> cursorArticles(@Valid CursorReq cursorReq,
+                                                                           @Parameter(description = "是否置顶", required = true)
+                                                                           @PathVariable("isTop") Boolean isTop) {
+        return articleService.cursorArticles(cursorReq, isTop);
+    }
+
     @Operation(summary = "查看文章预览(分类ID)")
+    @VersionedResource({ArticlePO.class, CategoryPO.class, TagPO.class})
     @GetMapping("category/{categoryId:\\d+}")
     public PageVO<ArticlePreviewVO> pagePreviewArticles(@Valid PageReq pageReq,
                                                         @Parameter(description = "分类id", required = true)
@@ -68,12 +134,35 @@ public class ArticleController {
         return articleService.pagePreviewArticles(pageReq, categoryId);
     }
 
+    @Operation(summary = "查看文章预览(分类ID, 游标分页)")
+    @VersionedResource({ArticlePO.class, CategoryPO.class, TagPO.class})
+    @GetMapping("category/{categoryId:\\d+}/cursor")
+    public CursorPageVO<ArticlePreviewVO> cursorPreviewArticles(@Valid CursorReq cursorReq,
+                                                                @Parameter(description = "分类id", required = true)
+                                                                @PathVariable("categoryId") Long categoryId) {
+        return articleService.cursorPreviewArticles(cursorReq, categoryId);
+    }
+
     @Operation(summary = "查看文章预览(标签ID)")
+    @VersionedResource({ArticlePO.class, CategoryPO.class, TagPO.class})
     @GetMapping("tag/{tagIds:\\d+(?:,\\d+)*}")
     public PageVO<ArticlePreviewVO> pagePreviewArticles(@Valid PageReq pageReq,
                                                         @Parameter(description = "标签id", required = true)
-                                                        @PathVariable("tagIds") List<Long> tagIds) {
-        return articleService.pagePreviewArticles(pageReq, tagIds);
+                                                        @PathVariable("tagIds") List<Long> tagIds,
+                                                        @Parameter(description = "标签匹配方式")
+                                                        @RequestParam(value = "tagMatch", defaultValue = "ANY") TagMatchEnum tagMatch) {
+        return articleService.pagePreviewArticles(pageReq, tagIds, tagMatch);
+    }
+
+    @Operation(summary = "查看文章预览(标签ID, 游标分页)")
+    @VersionedResource({ArticlePO.class, CategoryPO.class, TagPO.class})
+    @GetMapping("tag/{tagIds:\\d+(?:,\\d+)*}/cursor")
+    public CursorPageVO<ArticlePreviewVO> cursorPreviewArticles(@Valid CursorReq cursorReq,
+                                                                @Parameter(description = "标签id", required = true)
+                                                                @PathVariable("tagIds") List<Long> tagIds,
+                                                                @Parameter(description = "标签匹配方式")
+                                                                @RequestParam(value = "tagMatch", defaultValue = "ANY") TagMatchEnum tagMatch) {
+        return articleService.cursorPreviewArticles(cursorReq, tagIds, tagMatch);
     }
 
     @Operation(summary = "查看文章详情(后台)")
@@ -85,8 +174,8 @@ public class ArticleController {
 
     @Operation(summary = "查看文章列表(后台)")
     @GetMapping("background")
-    public PageVO<ArticleDigestBackgroundVO> pageBackgroundArticles(@Valid PageReq pageReq,
-                                                                    @Valid ArticleQueryReq articleQueryReq) {
+    public CompletableFuture<PageVO<ArticleDigestBackgroundVO>> pageBackgroundArticles(@Valid PageReq pageReq,
+                                                                                       @Valid ArticleQueryReq articleQueryReq) {
         return articleService.pageBackgroundArticles(pageReq, articleQueryReq);
     }
 
@@ -138,5 +227,21 @@ public class ArticleController {
         return articleService.deleteArticles(articleIds);
     }
 
-    //TODO 文章导入与导出
+    @Operation(summary = "导入文章", description = "zip 压缩包, 每个 .md 文件为一篇文章, 文件开头的 front-matter 可以设置标题, 分类, 标签等信息")
+    @PostMapping(value = "import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ArticleImportVO importArticles(@Parameter(description = "文章压缩包", required = true)
+                                          @MatchFileType(mimeType = {"application/zip", "application/x-zip-compressed"}, message = "仅支持上传zip压缩包")
+                                          @RequestPart("archive") MultipartFile archive) {
+        return articleService.importArticles(archive);
+    }
+
+    @Operation(summary = "导出文章")
+    @GetMapping("export")
+    public ResponseEntity<ResponseBodyEmitter> exportArticles() {
+        ContentDisposition contentDisposition = ContentDisposition.attachment().filename("articles-" + LocalDate.now() + ".zip").build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(articleService.exportArticles());
+    }
 }
@@ -6,6 +6,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import top.yinzsw.blog.extension.web.VersionedResource;
+import top.yinzsw.blog.model.po.ArticlePO;
+import top.yinzsw.blog.model.po.CategoryPO;
 import top.yinzsw.blog.model.request.CategoryReq;
 import top.yinzsw.blog.model.request.PageReq;
 import top.yinzsw.blog.model.vo.CategoryDetailVO;
@@ -31,12 +34,14 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @Operation(summary = "查询分类列表")
+    @VersionedResource({CategoryPO.class, ArticlePO.class})
     @GetMapping
     public PageVO<CategoryDetailVO> pageCategories(@Valid PageReq pageReq) {
         return categoryService.pageCategories(pageReq);
     }
 
     @Operation(summary = "搜索文章分类")
+    @VersionedResource({CategoryPO.class, ArticlePO.class})
     @GetMapping("keywords/{keywords}")
     public PageVO<CategoryVO> pageSearchCategories(@Valid PageReq pageReq,
                                                    @Parameter(description = "分类名关键词", required = true)
@@ -6,6 +6,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import top.yinzsw.blog.extension.web.VersionedResource;
+import top.yinzsw.blog.model.po.FriendLinkPO;
 import top.yinzsw.blog.model.request.FriendLinkReq;
 import top.yinzsw.blog.model.request.PageReq;
 import top.yinzsw.blog.model.vo.FriendLinkVO;
@@ -30,6 +32,7 @@ public class FriendLinkController {
     private final FriendLinkService friendLinkService;
 
     @Operation(summary = "查看友链列表")
+    @VersionedResource(FriendLinkPO.class)
     @GetMapping("keywords/{keywords}")
     public PageVO<FriendLinkVO> pageSearchFriendLinks(@Valid PageReq pageReq,
                                                       @Parameter(description = "友链关键词", required = true)
@@ -6,6 +6,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import top.yinzsw.blog.extension.web.VersionedResource;
+import top.yinzsw.blog.model.po.TagPO;
 import top.yinzsw.blog.model.request.PageReq;
 import top.yinzsw.blog.model.request.TagReq;
 import top.yinzsw.blog.model.vo.PageVO;
@@ -31,12 +33,14 @@ public class TagController {
     private final TagService tagService;
 
     @Operation(summary = "查询标签列表")
+    @VersionedResource(TagPO.class)
     @GetMapping
     public PageVO<TagVO> pageTags(@Valid PageReq pageReq) {
         return tagService.pageTags(pageReq);
     }
 
     @Operation(summary = "搜索文章标签")
+    @VersionedResource(TagPO.class)
     @GetMapping("keywords/{keywords}")
     public PageVO<TagVO> pageSearchTags(@Valid PageReq pageReq,
                                         @Parameter(description = "标签名关键词", required = true)
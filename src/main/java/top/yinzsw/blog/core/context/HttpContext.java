@@ -3,12 +3,15 @@ package top.yinzsw.blog.core.context;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import top.yinzsw.blog.enums.ResponseCodeEnum;
 import top.yinzsw.blog.exception.BizException;
+import top.yinzsw.blog.extension.web.VersionedResourceInterceptor;
 import top.yinzsw.blog.model.dto.ContextDTO;
 import top.yinzsw.blog.model.vo.ResponseVO;
 
@@ -127,4 +130,46 @@ public class HttpContext {
         String jsonResponseBody = objectMapper.writeValueAsString(responseBody);
         httpServletResponse.getWriter().write(jsonResponseBody);
     }
+
+    /**
+     * 直接输出预渲染的响应体, 客户端支持 gzip 时输出预压缩的字节, 内容版本未变化时返回 304,
+     * ETag 与 {@link VersionedResourceInterceptor} 格式一致, 重新部署后同样失效
+     *
+     * @param version   内容版本
+     * @param jsonBytes 响应体(JSON)
+     * @param gzipBytes gzip 压缩后的响应体
+     */
+    @SneakyThrows
+    public void setResponseBody(String version, byte[] jsonBytes, byte[] gzipBytes) {
+        httpServletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(httpServletRequest, httpServletResponse).checkNotModified(VersionedResourceInterceptor.toETag(version))) {
+            return;
+        }
+
+        byte[] bytes = jsonBytes;
+        if (isAcceptGzip()) {
+            bytes = gzipBytes;
+            httpServletResponse.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        httpServletResponse.setContentLength(bytes.length);
+        httpServletResponse.getOutputStream().write(bytes);
+    }
+
+    private boolean isAcceptGzip() {
+        String acceptEncoding = httpServletRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            boolean isGzip = "gzip".equalsIgnoreCase(parts[0].trim()) || "*".equals(parts[0].trim());
+            boolean isRejected = parts.length > 1 && parts[1].trim().matches("q=0(\\.0{0,3})?");
+            if (isGzip && !isRejected) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
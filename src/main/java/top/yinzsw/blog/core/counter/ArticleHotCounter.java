@@ -0,0 +1,174 @@
+package top.yinzsw.blog.core.counter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import top.yinzsw.blog.core.index.ArticleOutlineIndex;
+import top.yinzsw.blog.manager.ArticleManager;
+import top.yinzsw.blog.model.vo.ArticleOutlineVO;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章热度榜
+ * <p>
+ * 采用前向衰减: 每次浏览, 点赞与发布都按发生时间折算为 {@code 权重 * 2^((发生时间 - 基准时间) / 半衰期)} 累加到 redis 有序集合,
+ * 越新的行为分数越高, 排序结果等价于按当前时间衰减后的热度排序, 且无需重新计算已有分数.
+ * 为避免分数无限增长, 每个周期更换一次基准时间, 上一周期的分数按系数折算后合并到新周期
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/13
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleHotCounter {
+
+    /**
+     * 热度半衰期
+     */
+    public static final Duration HALF_LIFE = Duration.ofDays(1);
+
+    /**
+     * 基准时间更换周期, 周期内分数最多放大 2^7 倍
+     */
+    private static final Duration REBASE_PERIOD = Duration.ofDays(7);
+
+    /**
+     * 热度榜最多保留的文章数
+     */
+    private static final int MAX_RANKED_ARTICLES = 10_000;
+
+    public static final double VIEW_WEIGHT = 1;
+    public static final double LIKE_WEIGHT = 5;
+    public static final double PUBLISH_WEIGHT = 20;
+
+    private static final RedisScript<Long> REBASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/article_hot_rebase.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ArticleOutlineIndex articleOutlineIndex;
+
+    /**
+     * 热门文章id列表本地缓存, 数量->文章id列表
+     */
+    private final Cache<Integer, List<Long>> hotArticleIdsCache = Caffeine.newBuilder()
+            .maximumSize(64)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    /**
+     * 获取当前周期的热度榜键
+     *
+     * @return redis 键
+     */
+    public String currentKey() {
+        return ArticleManager.ARTICLE_HOT_PREFIX + currentPeriod();
+    }
+
+    /**
+     * 把发生在指定时间的行为折算为当前周期的分数
+     *
+     * @param weight      行为权重
+     * @param epochMillis 发生时间
+     * @return 分数
+     */
+    public double toScore(double weight, long epochMillis) {
+        return weight * Math.pow(2, (double) (epochMillis - currentLandmarkMillis()) / HALF_LIFE.toMillis());
+    }
+
+    /**
+     * 获取当前周期的基准时间
+     *
+     * @return 基准时间戳(毫秒)
+     */
+    public long currentLandmarkMillis() {
+        return currentPeriod() * REBASE_PERIOD.toMillis();
+    }
+
+    /**
+     * 记录文章发布, 已在榜单中的文章不重复记录
+     *
+     * @param articleOutlineVOList 公开且未删除的文章
+     */
+    public void recordPublish(List<ArticleOutlineVO> articleOutlineVOList) {
+        String key = currentKey();
+        long nowMillis = System.currentTimeMillis();
+        articleOutlineVOList.forEach(articleOutlineVO -> {
+            long publishMillis = Math.min(nowMillis, articleOutlineVO.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            stringRedisTemplate.opsForZSet().addIfAbsent(key, articleOutlineVO.getId().toString(), toScore(PUBLISH_WEIGHT, publishMillis));
+        });
+    }
+
+    /**
+     * 获取当前最热的文章, 只返回公开且未删除的文章
+     *
+     * @param size 数量
+     * @return 文章id列表
+     */
+    public List<Long> listHotArticleIds(int size) {
+        //不使用 Cache#get(key, loader): 加载在 ConcurrentHashMap 的锁内执行, 虚拟线程执行网络IO时会占住载体线程
+        List<Long> articleIds = hotArticleIdsCache.getIfPresent(size);
+        if (Objects.isNull(articleIds)) {
+            articleIds = loadHotArticleIds(size);
+            hotArticleIdsCache.put(size, articleIds);
+        }
+        return articleIds;
+    }
+
+    /**
+     * 定期更换基准时间, 同时裁剪榜单长度
+     */
+    @Scheduled(initialDelay = 0, fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void rebase() {
+        long period = currentPeriod();
+        List<String> keys = List.of(ArticleManager.ARTICLE_HOT_PREFIX + (period - 1), ArticleManager.ARTICLE_HOT_PREFIX + period);
+        double factor = Math.pow(2, -(double) REBASE_PERIOD.toMillis() / HALF_LIFE.toMillis());
+        Long merged = stringRedisTemplate.execute(REBASE_SCRIPT, keys, String.valueOf(factor), String.valueOf(MAX_RANKED_ARTICLES));
+        if (Long.valueOf(1L).equals(merged)) {
+            log.info("文章热度榜已切换到第{}周期", period);
+        }
+    }
+
+    private List<Long> loadHotArticleIds(int size) {
+        String key = currentKey();
+        List<Long> articleIds = new ArrayList<>(size);
+        long start = 0;
+        long batchSize = size * 2L;
+        while (articleIds.size() < size && start < MAX_RANKED_ARTICLES) {
+            Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(key, start, start + batchSize - 1);
+            if (CollectionUtils.isEmpty(members)) {
+                break;
+            }
+
+            members.stream()
+                    .map(Long::valueOf)
+                    .filter(articleOutlineIndex::isVisible)
+                    .limit(size - articleIds.size())
+                    .forEach(articleIds::add);
+            if (members.size() < batchSize) {
+                break;
+            }
+            start += batchSize;
+        }
+        return articleIds;
+    }
+
+    private long currentPeriod() {
+        return Math.floorDiv(System.currentTimeMillis(), REBASE_PERIOD.toMillis());
+    }
+}
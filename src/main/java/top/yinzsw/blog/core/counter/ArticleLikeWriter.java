@@ -0,0 +1,197 @@
+package top.yinzsw.blog.core.counter;
+
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import top.yinzsw.blog.manager.ArticleManager;
+import top.yinzsw.blog.manager.UserManager;
+import top.yinzsw.blog.mapper.ArticleLikeMapper;
+import top.yinzsw.blog.model.po.ArticleLikePO;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 文章点赞写回
+ * <p>
+ * 点赞状态以 redis 为准, 每次变更同时追加到 redis 变更队列, 定期按批次合并后写入 MySQL.
+ * 批次通过 lua 脚本原子地移出队列并由一个节点认领, 同一时刻只存在一个已认领的批次, 批次严格按入队顺序写回,
+ * 多个节点同时写回时不会乱序; 批次写入成功后才确认删除, 写入失败或认领者宕机时批次保留,
+ * 认领租期过后以新批次id重新认领, 原认领者的确认随之失效, 重复写入是幂等的.
+ * redis 数据丢失时, 启动阶段以 MySQL 中的点赞记录重建用户点赞集合与文章点赞量
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/12
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleLikeWriter {
+
+    /**
+     * 单批次最多写回的变更数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 单次写回最多处理的批次数, 避免积压时长时间占用调度线程
+     */
+    private static final int MAX_BATCHES = 20;
+
+    /**
+     * 批次认领租期, 超过租期仍未确认的批次视为认领者已宕机, 可被重新认领, 需要远大于单批次写回耗时
+     */
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+
+    private static final RedisScript<String> CLAIM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/article_like_claim.lua"), String.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ArticleLikeMapper articleLikeMapper;
+
+    /**
+     * 写回互斥, 定时写回与关闭前写回不能同时进行
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 生成点赞变更记录
+     *
+     * @param uid       用户id
+     * @param articleId 文章id
+     * @param like      点赞或取消点赞
+     * @return 变更记录
+     */
+    public static String toChangeRecord(Long uid, Long articleId, boolean like) {
+        return uid + ":" + articleId + ":" + (like ? 1 : 0);
+    }
+
+    /**
+     * 定期批量写回
+     */
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (int i = 0; i < MAX_BATCHES && flushBatch(); i++) {
+                log.debug("文章点赞变更写回第{}批完成", i + 1);
+            }
+        } catch (RuntimeException e) {
+            log.error("文章点赞变更写回失败, 等待下次重试", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 关闭前写回剩余的变更, 未写回的变更仍保留在 redis 队列中
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    /**
+     * redis 中没有点赞数据时, 以数据库中的点赞记录重建
+     */
+    public void recoverIfAbsent() {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(ArticleManager.ARTICLE_LIKE_COUNT))
+                || Boolean.TRUE.equals(stringRedisTemplate.hasKey(ArticleManager.ARTICLE_LIKE_PENDING))
+                || Boolean.TRUE.equals(stringRedisTemplate.hasKey(ArticleManager.ARTICLE_LIKE_CLAIMED))) {
+            return;
+        }
+
+        List<ArticleLikePO> articleLikePOList = Db.lambdaQuery(ArticleLikePO.class)
+                .select(ArticleLikePO::getUserId, ArticleLikePO::getArticleId)
+                .list();
+        if (articleLikePOList.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<String>> userId2ArticleIds = articleLikePOList.stream()
+                .collect(Collectors.groupingBy(ArticleLikePO::getUserId,
+                        Collectors.mapping(po -> po.getArticleId().toString(), Collectors.toList())));
+        Map<Long, Long> articleId2LikeCount = articleLikePOList.stream()
+                .collect(Collectors.groupingBy(ArticleLikePO::getArticleId, Collectors.counting()));
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            userId2ArticleIds.forEach((userId, articleIds) ->
+                    stringConnection.sAdd(UserManager.USER_LIKED_ARTICLES_PREFIX + userId, articleIds.toArray(String[]::new)));
+            articleId2LikeCount.forEach((articleId, likeCount) ->
+                    stringConnection.zAdd(ArticleManager.ARTICLE_LIKE_COUNT, likeCount, articleId.toString()));
+            return null;
+        });
+        log.info("已从数据库恢复{}条文章点赞记录", articleLikePOList.size());
+    }
+
+    /**
+     * 认领并写回一个批次, 同一用户对同一文章的多次变更只保留最后一次
+     *
+     * @return 队列中是否可能还有剩余变更, 其他节点正在写回时返回 {@code false}
+     */
+    private boolean flushBatch() {
+        String batchId = stringRedisTemplate.execute(CLAIM_SCRIPT,
+                List.of(ArticleManager.ARTICLE_LIKE_PENDING, ArticleManager.ARTICLE_LIKE_CLAIMED),
+                String.valueOf(BATCH_SIZE), String.valueOf(System.currentTimeMillis()),
+                UUID.randomUUID().toString(), String.valueOf(CLAIM_LEASE.toMillis()));
+        if (Objects.isNull(batchId)) {
+            return false;
+        }
+
+        String batchKey = ArticleManager.ARTICLE_LIKE_CLAIMED + ":" + batchId;
+        List<String> changeRecords = stringRedisTemplate.opsForList().range(batchKey, 0, -1);
+        if (CollectionUtils.isEmpty(changeRecords)) {
+            //确认前宕机留下的空批次
+            ackBatch(batchId, batchKey);
+            return true;
+        }
+
+        Map<ArticleLikePO, Boolean> latestStates = new LinkedHashMap<>();
+        changeRecords.forEach(changeRecord -> {
+            String[] parts = changeRecord.split(":");
+            if (parts.length != 3) {
+                log.warn("忽略无法解析的点赞变更记录: {}", changeRecord);
+                return;
+            }
+            ArticleLikePO articleLikePO = new ArticleLikePO().setUserId(Long.valueOf(parts[0])).setArticleId(Long.valueOf(parts[1]));
+            latestStates.put(articleLikePO, "1".equals(parts[2]));
+        });
+
+        List<ArticleLikePO> likedList = new ArrayList<>();
+        List<ArticleLikePO> unlikedList = new ArrayList<>();
+        latestStates.forEach((articleLikePO, isLiked) -> (isLiked ? likedList : unlikedList).add(articleLikePO));
+        if (!likedList.isEmpty()) {
+            articleLikeMapper.insertIgnoreBatch(likedList);
+        }
+        if (!unlikedList.isEmpty()) {
+            articleLikeMapper.deleteBatch(unlikedList);
+        }
+
+        ackBatch(batchId, batchKey);
+        return true;
+    }
+
+    /**
+     * 确认批次已写回, 批次已被重新认领(批次id已变更)时不产生影响
+     *
+     * @param batchId  批次id
+     * @param batchKey 批次内容的键
+     */
+    private void ackBatch(String batchId, String batchKey) {
+        stringRedisTemplate.opsForZSet().remove(ArticleManager.ARTICLE_LIKE_CLAIMED, batchId);
+        stringRedisTemplate.delete(batchKey);
+    }
+}
@@ -0,0 +1,257 @@
+package top.yinzsw.blog.core.counter;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.yinzsw.blog.manager.ArticleManager;
+import top.yinzsw.blog.mapper.ArticleMapper;
+import top.yinzsw.blog.model.po.ArticlePO;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 文章浏览量写回计数器
+ * <p>
+ * 浏览量先累加到进程内分段计数器, 再定期批量写入 MySQL(持久化) 与 redis(排行, 热度与展示), 请求线程不访问存储.
+ * 写入 MySQL 失败时增量退回计数器等待下次重试; 写入 redis 失败时增量单独暂存, 下次写回时只重试 redis.
+ * redis 数据丢失时, 启动阶段以 MySQL 中的浏览量重建
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/11
+ */
+@Slf4j
+@Component
+public class ArticleViewCounter {
+
+    /**
+     * 最多同时等待写回的文章数, 超出后新文章的浏览量被丢弃, 写回后计数器即移除
+     */
+    private static final int MAX_PENDING_ARTICLES = 100_000;
+
+    private final ArticleMapper articleMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ArticleHotCounter articleHotCounter;
+
+    /**
+     * 文章id->待写回的浏览量增量
+     */
+    private final Map<Long, LongAdder> pendingCounters = new ConcurrentHashMap<>();
+
+    /**
+     * 文章id->已写入 MySQL 但写入 redis 失败的浏览量增量, 只在持有写回锁时访问
+     */
+    private final Map<Long, Long> redisRetryDeltas = new HashMap<>();
+
+    /**
+     * 写回互斥, 定时写回与关闭前写回不能同时进行
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong lastFlushMillis = new AtomicLong(System.currentTimeMillis());
+    private final Counter droppedCounter;
+    private final Timer flushTimer;
+
+    public ArticleViewCounter(ArticleMapper articleMapper, StringRedisTemplate stringRedisTemplate, ArticleHotCounter articleHotCounter,
+                              MeterRegistry meterRegistry) {
+        this.articleMapper = articleMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.articleHotCounter = articleHotCounter;
+        this.droppedCounter = Counter.builder("blog.article.views.dropped")
+                .description("未能写回的浏览量增量")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("blog.article.views.flush")
+                .description("浏览量写回耗时")
+                .register(meterRegistry);
+        Gauge.builder("blog.article.views.pending", this, ArticleViewCounter::getPendingCount)
+                .description("待写回的浏览量增量")
+                .register(meterRegistry);
+        Gauge.builder("blog.article.views.flush.lag", lastFlushMillis, lastMillis -> (System.currentTimeMillis() - lastMillis.get()) / 1000.0)
+                .description("距上次成功写回的秒数")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 累加一次浏览
+     *
+     * @param articleId 文章id
+     */
+    public void increment(Long articleId) {
+        LongAdder counter = pendingCounters.get(articleId);
+        if (Objects.isNull(counter)) {
+            if (pendingCounters.size() >= MAX_PENDING_ARTICLES) {
+                droppedCounter.increment();
+                return;
+            }
+            counter = pendingCounters.computeIfAbsent(articleId, id -> new LongAdder());
+        }
+        counter.increment();
+
+        //计数器可能已在写回后被移除, 此时把增量转移到当前的计数器
+        if (pendingCounters.get(articleId) != counter) {
+            transfer(articleId, counter);
+        }
+    }
+
+    /**
+     * 定期批量写回
+     */
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushTimer.record(this::doFlush);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 关闭前写回剩余的增量
+     */
+    @PreDestroy
+    public void drain() {
+        flush();
+        long pendingCount = getPendingCount();
+        if (pendingCount > 0) {
+            droppedCounter.increment(pendingCount);
+            log.warn("关闭前仍有{}次文章浏览未能写回", pendingCount);
+        }
+
+        flushLock.lock();
+        try {
+            long redisPendingCount = redisRetryDeltas.values().stream().mapToLong(Long::longValue).sum();
+            if (redisPendingCount > 0) {
+                droppedCounter.increment(redisPendingCount);
+                log.warn("关闭前仍有{}次文章浏览未能写入redis", redisPendingCount);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * redis 中没有浏览量数据时, 以数据库中的浏览量重建
+     * <p>
+     * 与其他节点的写回并发时, 读取数据库与写入 redis 之间写回的增量可能丢失, 仅影响展示与排行
+     * </p>
+     */
+    public void recoverIfAbsent() {
+        flushLock.lock();
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(ArticleManager.ARTICLE_VIEW_COUNT))) {
+                return;
+            }
+
+            List<ArticlePO> articlePOList = articleMapper.selectListUncached(Wrappers.lambdaQuery(ArticlePO.class)
+                    .select(ArticlePO::getId, ArticlePO::getViewsCount)
+                    .gt(ArticlePO::getViewsCount, 0));
+            if (articlePOList.isEmpty()) {
+                return;
+            }
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                articlePOList.forEach(articlePO ->
+                        stringConnection.zAdd(ArticleManager.ARTICLE_VIEW_COUNT, articlePO.getViewsCount(), articlePO.getId().toString()));
+                return null;
+            });
+            log.info("已从数据库恢复{}篇文章的浏览量", articlePOList.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        Map<Long, Long> viewsDeltaMap = new HashMap<>();
+        pendingCounters.forEach((articleId, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta > 0) {
+                viewsDeltaMap.put(articleId, delta);
+            } else if (pendingCounters.remove(articleId, counter)) {
+                //上一轮已写回且之后没有新的浏览, 移除计数器; 移除前后累加的增量转移到新的计数器
+                transfer(articleId, counter);
+            }
+        });
+        if (viewsDeltaMap.isEmpty() && redisRetryDeltas.isEmpty()) {
+            lastFlushMillis.set(System.currentTimeMillis());
+            return;
+        }
+
+        if (!viewsDeltaMap.isEmpty()) {
+            try {
+                articleMapper.incrementViewsCount(viewsDeltaMap);
+            } catch (RuntimeException e) {
+                log.error("文章浏览量写入数据库失败, 等待下次重试", e);
+                viewsDeltaMap.forEach((articleId, delta) -> pendingCounters.computeIfAbsent(articleId, id -> new LongAdder()).add(delta));
+                return;
+            }
+        }
+
+        //已写入数据库的增量与上次写入 redis 失败的增量一起写入 redis
+        Map<Long, Long> redisDeltaMap = new HashMap<>(redisRetryDeltas);
+        viewsDeltaMap.forEach((articleId, delta) -> redisDeltaMap.merge(articleId, delta, Long::sum));
+        String hotKey = articleHotCounter.currentKey();
+        double viewHotScore = articleHotCounter.toScore(ArticleHotCounter.VIEW_WEIGHT, System.currentTimeMillis());
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                redisDeltaMap.forEach((articleId, delta) -> {
+                    stringConnection.zIncrBy(ArticleManager.ARTICLE_VIEW_COUNT, delta, articleId.toString());
+                    stringConnection.zIncrBy(hotKey, delta * viewHotScore, articleId.toString());
+                });
+                return null;
+            });
+            redisRetryDeltas.clear();
+        } catch (RuntimeException e) {
+            //数据库已写入, 只重试 redis; 暂存的文章数超出上限时丢弃新文章的增量
+            long droppedCount = 0;
+            for (Map.Entry<Long, Long> entry : viewsDeltaMap.entrySet()) {
+                if (redisRetryDeltas.containsKey(entry.getKey()) || redisRetryDeltas.size() < MAX_PENDING_ARTICLES) {
+                    redisRetryDeltas.merge(entry.getKey(), entry.getValue(), Long::sum);
+                } else {
+                    droppedCount += entry.getValue();
+                }
+            }
+            droppedCounter.increment(droppedCount);
+            log.error("文章浏览量写入redis失败, 等待下次重试, 丢弃{}次浏览", droppedCount, e);
+            return;
+        }
+        lastFlushMillis.set(System.currentTimeMillis());
+    }
+
+    /**
+     * 把已移除计数器上的增量转移到当前计数器
+     *
+     * @param articleId 文章id
+     * @param counter   已移除的计数器
+     */
+    private void transfer(Long articleId, LongAdder counter) {
+        long delta = counter.sumThenReset();
+        if (delta > 0) {
+            pendingCounters.computeIfAbsent(articleId, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    private long getPendingCount() {
+        return pendingCounters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
@@ -0,0 +1,29 @@
+package top.yinzsw.blog.core.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * 文章变更事件
+ * <p>
+ * 文章的新增, 修改, 置顶, 删除与恢复都会发布此事件, 监听者应以数据库中的最新状态为准刷新各自维护的数据
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/01
+ */
+@Getter
+public class ArticleChangeEvent extends ApplicationEvent {
+
+    /**
+     * 发生变更的文章id列表
+     */
+    private final List<Long> articleIds;
+
+    public ArticleChangeEvent(Object source, List<Long> articleIds) {
+        super(source);
+        this.articleIds = articleIds;
+    }
+}
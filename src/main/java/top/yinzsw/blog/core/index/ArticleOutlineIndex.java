@@ -0,0 +1,345 @@
+package top.yinzsw.blog.core.index;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.yinzsw.blog.enums.ArticleStatusEnum;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.mapper.ArticleMapper;
+import top.yinzsw.blog.model.converter.ArticleConverter;
+import top.yinzsw.blog.model.po.ArticlePO;
+import top.yinzsw.blog.model.vo.ArticleArchiveMonthVO;
+import top.yinzsw.blog.model.vo.ArticleArchiveVO;
+import top.yinzsw.blog.model.vo.ArticleOutlineVO;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 文章大纲索引
+ * <p>
+ * 按文章id有序维护所有公开且未删除文章的大纲信息(标题, 封面, 发表时间), 上一篇/下一篇/最新文章均在内存中完成查询.
+ * 同时按月物化文章归档, 归档时间线直接读取.
+ * 本节点文章变更时增量刷新, 其他节点通过定期比较文章表版本发现变更后全量对账, 并定期对账以修正可能的偏差
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/02
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleOutlineIndex {
+    private final ArticleConverter articleConverter;
+    private final TableVersionManager tableVersionManager;
+    private final ArticleMapper articleMapper;
+
+    /**
+     * 文章id->文章大纲
+     */
+    private final ConcurrentSkipListMap<Long, ArticlePO> outlineMap = new ConcurrentSkipListMap<>();
+
+    /**
+     * 年月->月度归档, 每个月度归档创建后不再修改, 变更时整体替换
+     */
+    private final ConcurrentSkipListMap<YearMonth, ArticleArchiveMonthVO> archiveMap = new ConcurrentSkipListMap<>();
+
+    /**
+     * 刷新与对账互斥, 避免对账时加载的旧快照覆盖增量刷新的结果
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * 可见(公开且未删除)文章id位图, 写时复制, 读取方不能修改
+     */
+    private volatile RoaringBitmap visibleBitmap = new RoaringBitmap();
+
+    private volatile boolean isLoaded = false;
+
+    /**
+     * 索引已包含的文章表版本, 全量对账或本节点写入后推进
+     */
+    private volatile long loadedVersion = Long.MIN_VALUE;
+
+    /**
+     * 获取上一篇文章(id更大的相邻文章)
+     *
+     * @param articleId 文章id
+     * @return 文章大纲, 不存在时返回 {@code null}
+     */
+    public ArticleOutlineVO getPrevArticle(Long articleId) {
+        ensureLoaded();
+        Map.Entry<Long, ArticlePO> entry = outlineMap.higherEntry(articleId);
+        return Objects.isNull(entry) ? null : articleConverter.toArticleOutlineVO(entry.getValue());
+    }
+
+    /**
+     * 获取下一篇文章(id更小的相邻文章)
+     *
+     * @param articleId 文章id
+     * @return 文章大纲, 不存在时返回 {@code null}
+     */
+    public ArticleOutlineVO getNextArticle(Long articleId) {
+        ensureLoaded();
+        Map.Entry<Long, ArticlePO> entry = outlineMap.lowerEntry(articleId);
+        return Objects.isNull(entry) ? null : articleConverter.toArticleOutlineVO(entry.getValue());
+    }
+
+    /**
+     * 获取最新发布的文章
+     *
+     * @param size 数量
+     * @return 文章大纲列表
+     */
+    public List<ArticleOutlineVO> listNewestArticles(int size) {
+        ensureLoaded();
+        List<ArticlePO> articlePOList = outlineMap.descendingMap().values().stream().limit(size).collect(Collectors.toList());
+        return articleConverter.toArticleOutlineVO(articlePOList);
+    }
+
+    /**
+     * 按给定顺序获取文章大纲, 忽略不存在(非公开或已删除)的文章
+     *
+     * @param articleIds 文章id列表
+     * @return 文章大纲列表
+     */
+    public List<ArticleOutlineVO> listArticles(Collection<Long> articleIds) {
+        ensureLoaded();
+        List<ArticlePO> articlePOList = articleIds.stream().map(outlineMap::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return articleConverter.toArticleOutlineVO(articlePOList);
+    }
+
+    /**
+     * 获取月度归档时间线, 按年月倒序
+     * <p>
+     * 返回的归档对象为共享的只读快照, 调用方不能修改
+     * </p>
+     *
+     * @param from 起始年月(包含), 为 {@code null} 时不限制
+     * @param to   截止年月(包含), 为 {@code null} 时不限制
+     * @return 月度归档列表
+     */
+    public List<ArticleArchiveMonthVO> listArchiveMonths(YearMonth from, YearMonth to) {
+        ensureLoaded();
+        NavigableMap<YearMonth, ArticleArchiveMonthVO> months = archiveMap;
+        if (Objects.nonNull(from)) {
+            months = months.tailMap(from, true);
+        }
+        if (Objects.nonNull(to)) {
+            months = months.headMap(to, true);
+        }
+        return new ArrayList<>(months.descendingMap().values());
+    }
+
+    /**
+     * 判断文章是否公开且未删除
+     *
+     * @param articleId 文章id
+     * @return 是否可见
+     */
+    public boolean isVisible(Long articleId) {
+        ensureLoaded();
+        return outlineMap.containsKey(articleId);
+    }
+
+    /**
+     * 获取可见文章id位图, 返回的位图只读
+     *
+     * @return 可见文章id位图
+     */
+    public RoaringBitmap getVisibleBitmap() {
+        ensureLoaded();
+        return visibleBitmap;
+    }
+
+    /**
+     * 以数据库中的最新状态增量刷新文章
+     *
+     * @param articleIds 文章id列表
+     */
+    public void refresh(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+
+        refreshLock.lock();
+        try {
+            Map<Long, ArticlePO> articlePOMap = Db.lambdaQuery(ArticlePO.class)
+                    .select(ArticlePO::getId, ArticlePO::getArticleTitle, ArticlePO::getArticleCover, ArticlePO::getCreateTime,
+                            ArticlePO::getArticleStatus, ArticlePO::getIsDeleted)
+                    .in(ArticlePO::getId, articleIds)
+                    .list().stream()
+                    .collect(Collectors.toMap(ArticlePO::getId, Function.identity()));
+
+            RoaringBitmap newVisibleBitmap = visibleBitmap.clone();
+            Set<YearMonth> changedMonths = new HashSet<>();
+            articleIds.forEach(articleId -> {
+                Optional.ofNullable(outlineMap.get(articleId)).map(this::toYearMonth).ifPresent(changedMonths::add);
+                ArticlePO articlePO = articlePOMap.get(articleId);
+                boolean isVisible = Objects.nonNull(articlePO)
+                        && ArticleStatusEnum.PUBLIC.equals(articlePO.getArticleStatus())
+                        && Boolean.FALSE.equals(articlePO.getIsDeleted());
+                if (isVisible) {
+                    changedMonths.add(toYearMonth(articlePO));
+                    outlineMap.put(articleId, toOutline(articlePO));
+                    newVisibleBitmap.add(Math.toIntExact(articleId));
+                } else {
+                    outlineMap.remove(articleId);
+                    newVisibleBitmap.remove(Math.toIntExact(articleId));
+                }
+            });
+            visibleBitmap = newVisibleBitmap;
+            changedMonths.forEach(month -> rebuildArchiveMonth(month, articleIds));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 获取索引已包含的文章表版本
+     *
+     * @return 文章表版本
+     */
+    public long getLoadedVersion() {
+        return loadedVersion;
+    }
+
+    /**
+     * 本节点写入并增量刷新后推进索引版本, 仅当递增前的版本就是索引版本时推进, 否则说明期间有其他节点写入, 等待定期对账
+     *
+     * @param version 本次写入递增后的文章表版本
+     */
+    public void advanceVersion(long version) {
+        refreshLock.lock();
+        try {
+            if (loadedVersion == version - 1) {
+                loadedVersion = version;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 定期比较文章表版本, 其他节点写入后全量对账
+     */
+    @Scheduled(initialDelay = 2, fixedDelay = 2, timeUnit = TimeUnit.SECONDS)
+    public void syncVersion() {
+        if (isLoaded && loadedVersion != tableVersionManager.getVersion(ArticlePO.class)) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 与数据库全量对账
+     */
+    @Scheduled(initialDelay = 0, fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void reconcile() {
+        refreshLock.lock();
+        try {
+            //先读取版本再加载数据, 索引的版本不会比数据新, 避免漏掉加载期间的变更
+            long version = tableVersionManager.getVersion(ArticlePO.class);
+            //绕过二级缓存, 其他节点写入后本节点的二级缓存不会刷新
+            Map<Long, ArticlePO> articlePOMap = articleMapper.selectListUncached(Wrappers.lambdaQuery(ArticlePO.class)
+                            .select(ArticlePO::getId, ArticlePO::getArticleTitle, ArticlePO::getArticleCover, ArticlePO::getCreateTime)
+                            .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
+                            .eq(ArticlePO::getIsDeleted, false))
+                    .stream()
+                    .collect(Collectors.toMap(ArticlePO::getId, Function.identity()));
+
+            int driftCount = (int) outlineMap.keySet().stream().filter(articleId -> !articlePOMap.containsKey(articleId)).count();
+            outlineMap.keySet().retainAll(articlePOMap.keySet());
+            outlineMap.putAll(articlePOMap);
+
+            RoaringBitmap newVisibleBitmap = new RoaringBitmap();
+            articlePOMap.keySet().forEach(articleId -> newVisibleBitmap.add(Math.toIntExact(articleId)));
+            newVisibleBitmap.runOptimize();
+            visibleBitmap = newVisibleBitmap;
+
+            Map<YearMonth, ArticleArchiveMonthVO> newArchiveMap = articlePOMap.values().stream()
+                    .collect(Collectors.groupingBy(this::toYearMonth, Collectors.collectingAndThen(Collectors.toList(),
+                            articlePOList -> toArchiveMonth(articlePOList.get(0).getCreateTime(), articlePOList))));
+            archiveMap.keySet().retainAll(newArchiveMap.keySet());
+            archiveMap.putAll(newArchiveMap);
+            loadedVersion = version;
+            isLoaded = true;
+
+            if (driftCount > 0) {
+                log.warn("文章大纲索引对账完成, 移除失效文章{}篇", driftCount);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (isLoaded) {
+            return;
+        }
+
+        refreshLock.lock();
+        try {
+            if (!isLoaded) {
+                reconcile();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 重建月度归档, 月内除变更文章外的记录沿用旧归档, 变更文章以大纲索引中的最新状态为准
+     *
+     * @param month      年月
+     * @param articleIds 变更的文章id列表
+     */
+    private void rebuildArchiveMonth(YearMonth month, List<Long> articleIds) {
+        Set<Long> changedArticleIds = new HashSet<>(articleIds);
+        Stream<Long> unchangedArticleIds = Optional.ofNullable(archiveMap.get(month)).stream()
+                .flatMap(archiveMonthVO -> archiveMonthVO.getArticles().stream())
+                .map(ArticleArchiveVO::getId)
+                .filter(articleId -> !changedArticleIds.contains(articleId));
+        List<ArticlePO> articlePOList = Stream.concat(unchangedArticleIds, changedArticleIds.stream())
+                .map(outlineMap::get)
+                .filter(Objects::nonNull)
+                .filter(articlePO -> month.equals(toYearMonth(articlePO)))
+                .collect(Collectors.toList());
+
+        if (articlePOList.isEmpty()) {
+            archiveMap.remove(month);
+        } else {
+            archiveMap.put(month, toArchiveMonth(articlePOList.get(0).getCreateTime(), articlePOList));
+        }
+    }
+
+    private ArticleArchiveMonthVO toArchiveMonth(LocalDateTime createTime, List<ArticlePO> articlePOList) {
+        List<ArticlePO> sortedArticlePOList = articlePOList.stream()
+                .sorted(Comparator.comparing(ArticlePO::getCreateTime).thenComparing(ArticlePO::getId).reversed())
+                .collect(Collectors.toList());
+        List<ArticleArchiveVO> articleArchiveVOList = List.copyOf(articleConverter.toArticleArchiveVO(sortedArticlePOList));
+        return new ArticleArchiveMonthVO(YearMonth.from(createTime).toString(), articleArchiveVOList.size(), articleArchiveVOList);
+    }
+
+    private YearMonth toYearMonth(ArticlePO articlePO) {
+        return YearMonth.from(articlePO.getCreateTime());
+    }
+
+    private ArticlePO toOutline(ArticlePO articlePO) {
+        return new ArticlePO()
+                .setId(articlePO.getId())
+                .setArticleTitle(articlePO.getArticleTitle())
+                .setArticleCover(articlePO.getArticleCover())
+                .setCreateTime(articlePO.getCreateTime());
+    }
+}
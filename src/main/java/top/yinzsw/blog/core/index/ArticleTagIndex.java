@@ -0,0 +1,325 @@
+package top.yinzsw.blog.core.index;
+
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.yinzsw.blog.enums.TagMatchEnum;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.mapper.ArticleMtmTagMapper;
+import top.yinzsw.blog.model.po.ArticleMtmTagPO;
+import top.yinzsw.blog.model.po.ArticlePO;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 文章标签倒排索引
+ * <p>
+ * 标签id->文章id压缩位图, 文章id->标签id列表. 位图均为写时复制, 读取无需加锁.
+ * 本节点写入后增量更新, 其他节点通过定期比较文章表版本发现变更后全量对账.
+ * 文章id以int存储, 自增主键超出int范围时会抛出异常
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/03
+ */
+@Component
+@RequiredArgsConstructor
+public class ArticleTagIndex {
+    private static final long[] EMPTY_TAG_IDS = new long[0];
+    private static final RoaringBitmap EMPTY_BITMAP = new RoaringBitmap();
+
+    /**
+     * 计算相关文章时最多参与计算的标签数, 限制位图运算次数
+     */
+    private static final int MAX_RELATED_TAGS = 16;
+
+    private final ArticleOutlineIndex articleOutlineIndex;
+    private final TableVersionManager tableVersionManager;
+    private final ArticleMtmTagMapper articleMtmTagMapper;
+
+    /**
+     * 标签id->文章id位图
+     */
+    private volatile Map<Long, RoaringBitmap> tagArticleMap = new ConcurrentHashMap<>();
+
+    /**
+     * 文章id->标签id列表(升序)
+     */
+    private volatile Map<Long, long[]> articleTagMap = new ConcurrentHashMap<>();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile boolean isLoaded = false;
+
+    /**
+     * 索引已包含的文章表版本, 全量对账或本节点写入后推进
+     */
+    private volatile long loadedVersion = Long.MIN_VALUE;
+
+    /**
+     * 按标签重合数量从多到少查询相关文章, 数量相同时新文章优先, 仅返回公开且未删除的文章
+     *
+     * @param articleId 文章id
+     * @param size      数量
+     * @return 相关文章id列表
+     */
+    public List<Long> listRelatedArticleIds(Long articleId, int size) {
+        ensureLoaded();
+        long[] tagIds = articleTagMap.getOrDefault(articleId, EMPTY_TAG_IDS);
+        int tagCount = Math.min(tagIds.length, MAX_RELATED_TAGS);
+        if (tagCount == 0) {
+            return Collections.emptyList();
+        }
+
+        //levels[j]: 至少与当前文章有 j+1 个相同标签的文章
+        RoaringBitmap[] levels = new RoaringBitmap[tagCount];
+        for (int i = 0; i < tagCount; i++) {
+            RoaringBitmap tagBitmap = tagArticleMap.getOrDefault(tagIds[i], EMPTY_BITMAP);
+            for (int j = i; j >= 1; j--) {
+                RoaringBitmap hitBitmap = RoaringBitmap.and(levels[j - 1], tagBitmap);
+                levels[j] = Objects.isNull(levels[j]) ? hitBitmap : RoaringBitmap.or(levels[j], hitBitmap);
+            }
+            levels[0] = Objects.isNull(levels[0]) ? tagBitmap.clone() : RoaringBitmap.or(levels[0], tagBitmap);
+        }
+
+        RoaringBitmap visibleBitmap = articleOutlineIndex.getVisibleBitmap();
+        RoaringBitmap takenBitmap = new RoaringBitmap();
+        takenBitmap.add(Math.toIntExact(articleId));
+
+        List<Long> relatedArticleIds = new ArrayList<>(size);
+        for (int j = tagCount - 1; j >= 0 && relatedArticleIds.size() < size; j--) {
+            RoaringBitmap candidateBitmap = RoaringBitmap.and(levels[j], visibleBitmap);
+            candidateBitmap.andNot(takenBitmap);
+
+            IntIterator iterator = candidateBitmap.getReverseIntIterator();
+            while (iterator.hasNext() && relatedArticleIds.size() < size) {
+                int relatedArticleId = iterator.next();
+                relatedArticleIds.add((long) relatedArticleId);
+                takenBitmap.add(relatedArticleId);
+            }
+        }
+        return relatedArticleIds;
+    }
+
+    /**
+     * 获取文章的标签
+     *
+     * @param articleId 文章id
+     * @return 标签id列表(升序), 调用方不能修改
+     */
+    public long[] getTagIds(Long articleId) {
+        ensureLoaded();
+        return articleTagMap.getOrDefault(articleId, EMPTY_TAG_IDS);
+    }
+
+    /**
+     * 查询带有指定标签且公开未删除的文章
+     *
+     * @param tagIds   标签id列表
+     * @param tagMatch 匹配方式
+     * @return 文章id位图, 调用方可以修改
+     */
+    public RoaringBitmap matchVisibleArticles(Collection<Long> tagIds, TagMatchEnum tagMatch) {
+        ensureLoaded();
+        RoaringBitmap[] tagBitmaps = tagIds.stream().distinct()
+                .map(tagId -> tagArticleMap.getOrDefault(tagId, EMPTY_BITMAP))
+                .toArray(RoaringBitmap[]::new);
+        if (tagBitmaps.length == 0) {
+            return new RoaringBitmap();
+        }
+
+        RoaringBitmap visibleBitmap = articleOutlineIndex.getVisibleBitmap();
+        if (TagMatchEnum.ALL.equals(tagMatch)) {
+            RoaringBitmap matchBitmap = FastAggregation.and(tagBitmaps);
+            matchBitmap.and(visibleBitmap);
+            return matchBitmap;
+        }
+
+        RoaringBitmap matchBitmap = FastAggregation.or(tagBitmaps);
+        matchBitmap.and(visibleBitmap);
+        return matchBitmap;
+    }
+
+    /**
+     * 按文章id倒序(新文章优先)截取一页文章id, 只访问该页的元素
+     *
+     * @param articleBitmap 文章id位图
+     * @param offset        偏移量
+     * @param size          条数
+     * @return 文章id列表
+     */
+    public static List<Long> pageDescending(RoaringBitmap articleBitmap, long offset, long size) {
+        long cardinality = articleBitmap.getLongCardinality();
+        long end = Math.min(cardinality, offset + size);
+        List<Long> articleIds = new ArrayList<>((int) Math.max(0, end - offset));
+        for (long i = offset; i < end; i++) {
+            articleIds.add((long) articleBitmap.select(Math.toIntExact(cardinality - 1 - i)));
+        }
+        return articleIds;
+    }
+
+    /**
+     * 按文章id倒序(新文章优先)从游标位置截取一页文章id
+     *
+     * @param articleBitmap 文章id位图
+     * @param beforeId      游标, 只返回id小于该值的文章, 为 {@code null} 时从头开始
+     * @param size          条数
+     * @return 文章id列表
+     */
+    public static List<Long> seekDescending(RoaringBitmap articleBitmap, Long beforeId, long size) {
+        long cardinality = articleBitmap.getLongCardinality();
+        if (Objects.isNull(beforeId)) {
+            return pageDescending(articleBitmap, 0, size);
+        }
+        if (beforeId <= 0) {
+            return Collections.emptyList();
+        }
+
+        //rank 为不大于 beforeId-1 的文章数, 倒序时其余文章都排在游标之前
+        long lowerCount = articleBitmap.rankLong(Math.toIntExact(beforeId - 1));
+        return pageDescending(articleBitmap, cardinality - lowerCount, size);
+    }
+
+    /**
+     * 替换文章的标签
+     *
+     * @param articleId 文章id
+     * @param tagIds    新的标签id列表
+     */
+    public void replaceArticleTags(Long articleId, Collection<Long> tagIds) {
+        refreshLock.lock();
+        try {
+            int id = Math.toIntExact(articleId);
+            long[] oldTagIds = articleTagMap.getOrDefault(articleId, EMPTY_TAG_IDS);
+            long[] newTagIds = tagIds.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+
+            Arrays.stream(oldTagIds)
+                    .filter(tagId -> Arrays.binarySearch(newTagIds, tagId) < 0)
+                    .forEach(tagId -> updateTagBitmap(tagId, bitmap -> bitmap.remove(id)));
+            Arrays.stream(newTagIds)
+                    .filter(tagId -> Arrays.binarySearch(oldTagIds, tagId) < 0)
+                    .forEach(tagId -> updateTagBitmap(tagId, bitmap -> bitmap.add(id)));
+
+            if (newTagIds.length == 0) {
+                articleTagMap.remove(articleId);
+            } else {
+                articleTagMap.put(articleId, newTagIds);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 移除文章的所有标签
+     *
+     * @param articleIds 文章id列表
+     */
+    public void removeArticles(Collection<Long> articleIds) {
+        refreshLock.lock();
+        try {
+            articleIds.forEach(articleId -> replaceArticleTags(articleId, Collections.emptyList()));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 获取索引已包含的文章表版本
+     *
+     * @return 文章表版本
+     */
+    public long getLoadedVersion() {
+        return loadedVersion;
+    }
+
+    /**
+     * 本节点写入并增量刷新后推进索引版本, 仅当递增前的版本就是索引版本时推进, 否则说明期间有其他节点写入, 等待定期对账
+     *
+     * @param version 本次写入递增后的文章表版本
+     */
+    public void advanceVersion(long version) {
+        refreshLock.lock();
+        try {
+            if (loadedVersion == version - 1) {
+                loadedVersion = version;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 定期比较文章表版本, 其他节点写入后全量对账
+     */
+    @Scheduled(initialDelay = 2, fixedDelay = 2, timeUnit = TimeUnit.SECONDS)
+    public void syncVersion() {
+        if (isLoaded && loadedVersion != tableVersionManager.getVersion(ArticlePO.class)) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 与数据库全量对账
+     */
+    @Scheduled(initialDelay = 0, fixedDelay = 30, timeUnit = TimeUnit.MINUTES)
+    public void reconcile() {
+        refreshLock.lock();
+        try {
+            //先读取版本再加载数据, 索引的版本不会比数据新, 避免漏掉加载期间的变更
+            long version = tableVersionManager.getVersion(ArticlePO.class);
+            Map<Long, RoaringBitmap> newTagArticleMap = new ConcurrentHashMap<>();
+            //绕过二级缓存, 其他节点写入后本节点的二级缓存不会刷新
+            Map<Long, List<Long>> articleId2TagIds = articleMtmTagMapper.listAllUncached().stream()
+                    .peek(po -> newTagArticleMap.computeIfAbsent(po.getTagId(), tagId -> new RoaringBitmap())
+                            .add(Math.toIntExact(po.getArticleId())))
+                    .collect(Collectors.groupingBy(ArticleMtmTagPO::getArticleId,
+                            Collectors.mapping(ArticleMtmTagPO::getTagId, Collectors.toList())));
+            newTagArticleMap.values().forEach(RoaringBitmap::runOptimize);
+
+            Map<Long, long[]> newArticleTagMap = new ConcurrentHashMap<>();
+            articleId2TagIds.forEach((articleId, tagIds) ->
+                    newArticleTagMap.put(articleId, tagIds.stream().mapToLong(Long::longValue).distinct().sorted().toArray()));
+
+            tagArticleMap = newTagArticleMap;
+            articleTagMap = newArticleTagMap;
+            loadedVersion = version;
+            isLoaded = true;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void updateTagBitmap(long tagId, Consumer<RoaringBitmap> updateFn) {
+        RoaringBitmap bitmap = tagArticleMap.getOrDefault(tagId, EMPTY_BITMAP).clone();
+        updateFn.accept(bitmap);
+        if (bitmap.isEmpty()) {
+            tagArticleMap.remove(tagId);
+        } else {
+            tagArticleMap.put(tagId, bitmap);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (isLoaded) {
+            return;
+        }
+
+        refreshLock.lock();
+        try {
+            if (!isLoaded) {
+                reconcile();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package top.yinzsw.blog.core.index;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.mapper.CategoryMapper;
+import top.yinzsw.blog.mapper.TagMapper;
+import top.yinzsw.blog.model.po.CategoryPO;
+import top.yinzsw.blog.model.po.TagPO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分类与标签快照
+ * <p>
+ * 分类表与标签表数据量小且很少变更, 全量加载为不可变快照, 按 long 主键查询名称, 映射分类与标签时无需访问数据库.
+ * 本节点写入后在事务提交后立即整体替换快照, 其他节点通过定期比较表版本发现变更后重新加载
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataSnapshot {
+    private final TableVersionManager tableVersionManager;
+    private final CategoryMapper categoryMapper;
+    private final TagMapper tagMapper;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 获取分类名
+     *
+     * @param categoryId 分类id
+     * @return 分类名, 不存在时返回 {@code null}
+     */
+    public String getCategoryName(long categoryId) {
+        return getSnapshot().categoryNames.get(categoryId);
+    }
+
+    /**
+     * 批量获取分类名, 忽略不存在的分类
+     *
+     * @param categoryIds 分类id列表
+     * @return 分类id->分类名
+     */
+    public Map<Long, String> getCategoryNameMap(Collection<Long> categoryIds) {
+        Snapshot current = getSnapshot();
+        Map<Long, String> categoryNameMap = new HashMap<>();
+        categoryIds.stream().filter(Objects::nonNull).forEach(categoryId -> {
+            String categoryName = current.categoryNames.get(categoryId.longValue());
+            if (Objects.nonNull(categoryName)) {
+                categoryNameMap.put(categoryId, categoryName);
+            }
+        });
+        return categoryNameMap;
+    }
+
+    /**
+     * 获取标签
+     *
+     * @param tagId 标签id
+     * @return 仅包含id与标签名的新对象, 不存在时返回 {@code null}
+     */
+    public TagPO getTag(long tagId) {
+        String tagName = getSnapshot().tagNames.get(tagId);
+        return Objects.isNull(tagName) ? null : new TagPO().setId(tagId).setTagName(tagName);
+    }
+
+    /**
+     * 从数据库重新加载快照, 在分类或标签写入的事务提交后调用
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            //先读取版本再加载数据, 快照的版本不会比数据新, 避免漏掉加载期间的变更
+            List<Long> versions = tableVersionManager.getVersions(CategoryPO.class, TagPO.class);
+
+            Long2ObjectOpenHashMap<String> categoryNames = new Long2ObjectOpenHashMap<>();
+            //绕过二级缓存, 其他节点写入后本节点的二级缓存不会刷新
+            categoryMapper.listCategoryNamesUncached()
+                    .forEach(categoryPO -> categoryNames.put(categoryPO.getId().longValue(), categoryPO.getCategoryName().intern()));
+            Long2ObjectOpenHashMap<String> tagNames = new Long2ObjectOpenHashMap<>();
+            tagMapper.listTagNamesUncached()
+                    .forEach(tagPO -> tagNames.put(tagPO.getId().longValue(), tagPO.getTagName().intern()));
+            categoryNames.trim();
+            tagNames.trim();
+
+            snapshot = new Snapshot(versions.get(0), versions.get(1),
+                    Long2ObjectMaps.unmodifiable(categoryNames), Long2ObjectMaps.unmodifiable(tagNames));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 定期比较表版本, 其他节点写入后重新加载
+     */
+    @Scheduled(initialDelay = 2, fixedDelay = 2, timeUnit = TimeUnit.SECONDS)
+    public void syncVersion() {
+        Snapshot current = snapshot;
+        if (Objects.isNull(current)) {
+            return;
+        }
+
+        List<Long> versions = tableVersionManager.getVersions(CategoryPO.class, TagPO.class);
+        if (current.categoryVersion != versions.get(0) || current.tagVersion != versions.get(1)) {
+            log.debug("分类或标签表版本已变化, 重新加载快照");
+            refresh();
+        }
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (Objects.nonNull(current)) {
+            return current;
+        }
+
+        refreshLock.lock();
+        try {
+            if (Objects.isNull(snapshot)) {
+                refresh();
+            }
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private static final class Snapshot {
+        private final long categoryVersion;
+        private final long tagVersion;
+        private final Long2ObjectMap<String> categoryNames;
+        private final Long2ObjectMap<String> tagNames;
+
+        private Snapshot(long categoryVersion, long tagVersion, Long2ObjectMap<String> categoryNames, Long2ObjectMap<String> tagNames) {
+            this.categoryVersion = categoryVersion;
+            this.tagVersion = tagVersion;
+            this.categoryNames = categoryNames;
+            this.tagNames = tagNames;
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package top.yinzsw.blog.core.maps;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import top.yinzsw.blog.core.index.ArticleTagIndex;
+import top.yinzsw.blog.core.index.ReferenceDataSnapshot;
 import top.yinzsw.blog.core.maps.mapping.ArticleMapping;
 import top.yinzsw.blog.core.maps.mapping.CategoryMapping;
 import top.yinzsw.blog.core.maps.mapping.RoleMapping;
@@ -13,6 +14,7 @@ import top.yinzsw.blog.model.po.RolePO;
 import top.yinzsw.blog.model.po.TagPO;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * 映射工厂
@@ -23,21 +25,23 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class MappingFactory {
-    private final ThreadPoolTaskExecutor taskExecutor;
+    private final Executor mappingExecutor;
+    private final ReferenceDataSnapshot referenceDataSnapshot;
+    private final ArticleTagIndex articleTagIndex;
 
     public ArticleMapping getArticleMapping(List<ArticlePO> articlePOList) {
-        return new ArticleMapping(taskExecutor, articlePOList);
+        return new ArticleMapping(mappingExecutor, articlePOList, referenceDataSnapshot, articleTagIndex);
     }
 
     public RoleMapping getRoleMapping(List<RolePO> rolePOList) {
-        return new RoleMapping(taskExecutor, rolePOList);
+        return new RoleMapping(mappingExecutor, rolePOList);
     }
 
     public TagMapping getTagMapping(List<TagPO> tagPOList) {
-        return new TagMapping(taskExecutor, tagPOList);
+        return new TagMapping(mappingExecutor, tagPOList);
     }
 
     public CategoryMapping getCategoryMapping(List<CategoryPO> categoryPOList) {
-        return new CategoryMapping(taskExecutor, categoryPOList);
+        return new CategoryMapping(mappingExecutor, categoryPOList);
     }
 }
@@ -1,24 +1,38 @@
 package top.yinzsw.blog.core.maps.handler;
 
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 抽象映射任务执行器
+ * <p>
+ * 任务可以设置超时时间与降级结果: 超时或失败时有降级结果的任务使用降级结果, 没有降级结果的任务使整个映射失败并取消其余任务.
+ * 取消只阻止被取消任务写入映射信息, 已在执行的查询不会被中断
+ * </p>
  *
  * @author yinzsW
  * @since 23/01/27
  **/
+@Slf4j
 public abstract class AbstractMapTaskRunner<O, C> implements MapHandler<O, C> {
 
     /**
      * 任务列表
      */
-    private final List<Runnable> runnableTasks = new ArrayList<>();
+    private final List<MapTask> mapTasks = new ArrayList<>();
 
     /**
      * 添加任务
@@ -26,29 +40,96 @@ public abstract class AbstractMapTaskRunner<O, C> implements MapHandler<O, C> {
      * @param runnableList 任务
      */
     protected final void addRunnable(Runnable... runnableList) {
-        runnableTasks.addAll(Arrays.asList(runnableList));
+        Arrays.stream(runnableList).forEach(runnable -> addSupplier(() -> {
+            runnable.run();
+            return null;
+        }, null, null, unused -> {
+        }));
+    }
+
+    /**
+     * 添加可降级的任务, 查询与写入映射信息分离, 超时后迟到的查询结果会被丢弃
+     *
+     * @param supplier 查询
+     * @param timeout  超时时间, 为 {@code null} 时不限制
+     * @param fallback 超时或失败时的降级结果, 为 {@code null} 时不降级
+     * @param consumer 写入映射信息
+     * @param <T>      查询结果类型
+     */
+    protected final <T> void addSupplier(Supplier<T> supplier, Duration timeout, Supplier<T> fallback, Consumer<T> consumer) {
+        Runnable serialTask = () -> {
+            T value;
+            try {
+                value = supplier.get();
+            } catch (RuntimeException e) {
+                if (Objects.isNull(fallback)) {
+                    throw e;
+                }
+                log.warn("映射任务失败, 已降级: {}", e.toString());
+                value = fallback.get();
+            }
+            consumer.accept(value);
+        };
+        mapTasks.add(new MapTask(serialTask, executor -> {
+            CompletableFuture<T> future = Objects.isNull(executor) ?
+                    CompletableFuture.supplyAsync(supplier) :
+                    CompletableFuture.supplyAsync(supplier, executor);
+            if (Objects.nonNull(timeout)) {
+                future = future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (Objects.nonNull(fallback)) {
+                future = future.exceptionally(ex -> {
+                    log.warn("映射任务超时或失败, 已降级: {}", ex.toString());
+                    return fallback.get();
+                });
+            }
+            return future.thenAccept(consumer);
+        }));
     }
 
     /**
      * 并行运行
      */
     public final MapHandler<O, C> parallelRun() {
+        try {
+            return asyncRun().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步并行运行, 不阻塞调用线程
+     *
+     * @return 所有任务(含降级)完成后完成; 任一没有降级结果的任务失败时立即以该异常完成, 并取消其余任务
+     */
+    public final CompletableFuture<MapHandler<O, C>> asyncRun() {
         Executor executor = getExecutor();
-        runnableTasks.stream()
-                .map(runnable -> Objects.isNull(executor) ?
-                        CompletableFuture.runAsync(runnable) :
-                        CompletableFuture.runAsync(runnable, executor))
-                .forEach(CompletableFuture::join);
-        runnableTasks.clear();
-        return this;
+        CompletableFuture<MapHandler<O, C>> resultFuture = new CompletableFuture<>();
+        List<CompletableFuture<Void>> taskFutures = mapTasks.stream()
+                .map(mapTask -> mapTask.asyncTask.apply(executor))
+                .collect(Collectors.toList());
+        mapTasks.clear();
+
+        taskFutures.forEach(taskFuture -> taskFuture.whenComplete((unused, ex) -> {
+            if (Objects.nonNull(ex) && resultFuture.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex)) {
+                taskFutures.forEach(sibling -> sibling.cancel(true));
+            }
+        }));
+        CompletableFuture.allOf(taskFutures.toArray(CompletableFuture[]::new))
+                .thenRun(() -> resultFuture.complete(this));
+        return resultFuture;
     }
 
     /**
      * 串行运行
      */
     public final MapHandler<O, C> serialRun() {
-        runnableTasks.forEach(Runnable::run);
-        runnableTasks.clear();
+        mapTasks.forEach(mapTask -> mapTask.serialTask.run());
+        mapTasks.clear();
         return this;
     }
 
@@ -58,4 +139,14 @@ public abstract class AbstractMapTaskRunner<O, C> implements MapHandler<O, C> {
      * @return 线程池
      */
     protected abstract Executor getExecutor();
+
+    private static final class MapTask {
+        private final Runnable serialTask;
+        private final Function<Executor, CompletableFuture<Void>> asyncTask;
+
+        private MapTask(Runnable serialTask, Function<Executor, CompletableFuture<Void>> asyncTask) {
+            this.serialTask = serialTask;
+            this.asyncTask = asyncTask;
+        }
+    }
 }
@@ -0,0 +1,163 @@
+package top.yinzsw.blog.core.maps.loader;
+
+import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.toolkit.SimpleQuery;
+import top.yinzsw.blog.extension.mybatisplus.SqlUtils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求级批量加载器
+ * <p>
+ * 在一次请求内按 (实体, 键属性) 记忆查询结果, 同一请求中所有映射任务对同一实体的键查询合并去重:
+ * 已加载或正在加载的键直接复用, 只有未出现过的键才以一条 IN 查询加载. 请求内的数据视为不变, 不适用于写后读.
+ * 加载器绑定在请求线程上, 并经由线程池的任务装饰器传递到映射任务线程
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/17
+ */
+public final class RequestBatchLoader {
+    private static final ThreadLocal<RequestBatchLoader> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 实体类#键属性 -> 键 -> 该键对应的记录
+     */
+    private final Map<String, Map<Object, CompletableFuture<List<?>>>> memo = new ConcurrentHashMap<>();
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder loadedKeyCount = new LongAdder();
+    private final LongAdder reusedKeyCount = new LongAdder();
+
+    /**
+     * 获取当前线程绑定的加载器
+     *
+     * @return 加载器, 不在请求范围内时返回 {@code null}
+     */
+    public static RequestBatchLoader current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 为当前线程绑定一个新的加载器
+     *
+     * @return 加载器
+     */
+    public static RequestBatchLoader open() {
+        RequestBatchLoader loader = new RequestBatchLoader();
+        CURRENT.set(loader);
+        return loader;
+    }
+
+    /**
+     * 解除当前线程绑定的加载器
+     */
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 线程池任务装饰器, 将提交任务时的加载器传递到执行任务的线程
+     *
+     * @param runnable 任务
+     * @return 装饰后的任务
+     */
+    public static Runnable decorate(Runnable runnable) {
+        RequestBatchLoader loader = CURRENT.get();
+        if (Objects.isNull(loader)) {
+            return runnable;
+        }
+
+        return () -> {
+            RequestBatchLoader previous = CURRENT.get();
+            CURRENT.set(loader);
+            try {
+                runnable.run();
+            } finally {
+                if (Objects.isNull(previous)) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * 按键分组加载记录(整行), 未命中的键合并为一条 IN 查询
+     *
+     * @param keyFn 键属性
+     * @param keys  键列表
+     * @param <M>   实体类型
+     * @param <K>   键类型
+     * @return 键->记录列表, 不包含没有记录的键
+     */
+    @SuppressWarnings("unchecked")
+    public <M, K> Map<K, List<M>> loadGroups(SFunction<M, K> keyFn, Collection<?> keys) {
+        Class<M> entityClass = (Class<M>) LambdaUtils.extract(keyFn).getInstantiatedClass();
+        Map<Object, CompletableFuture<List<?>>> keyMemo = memo.computeIfAbsent(
+                entityClass.getName() + "#" + SqlUtils.getPropertyName(keyFn), name -> new ConcurrentHashMap<>());
+
+        //只由首次出现该键的调用方负责加载, 其余调用方等待其结果
+        Map<Object, CompletableFuture<List<?>>> futures = new LinkedHashMap<>();
+        Map<Object, CompletableFuture<List<?>>> ownedFutures = new HashMap<>();
+        for (Object key : new LinkedHashSet<>(keys)) {
+            CompletableFuture<List<?>> ownedFuture = new CompletableFuture<>();
+            CompletableFuture<List<?>> future = keyMemo.putIfAbsent(key, ownedFuture);
+            if (Objects.isNull(future)) {
+                ownedFutures.put(key, ownedFuture);
+                futures.put(key, ownedFuture);
+            } else {
+                futures.put(key, future);
+            }
+        }
+        reusedKeyCount.add(futures.size() - ownedFutures.size());
+
+        if (!ownedFutures.isEmpty()) {
+            batchCount.increment();
+            loadedKeyCount.add(ownedFutures.size());
+            try {
+                Map<K, List<M>> groupMap = SimpleQuery.group(Wrappers.lambdaQuery(entityClass).in(keyFn, ownedFutures.keySet()), keyFn);
+                ownedFutures.forEach((key, future) -> future.complete(groupMap.getOrDefault(key, Collections.emptyList())));
+            } catch (RuntimeException e) {
+                ownedFutures.forEach((key, future) -> {
+                    keyMemo.remove(key, future);
+                    future.completeExceptionally(e);
+                });
+                throw e;
+            }
+        }
+
+        Map<K, List<M>> result = new HashMap<>();
+        futures.forEach((key, future) -> {
+            List<M> records = (List<M>) future.join();
+            if (!records.isEmpty()) {
+                result.put((K) key, records);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取批量加载统计
+     *
+     * @return 统计信息
+     */
+    public String getStatistics() {
+        return String.format("查询%d次, 加载键%d个, 复用键%d个", batchCount.sum(), loadedKeyCount.sum(), reusedKeyCount.sum());
+    }
+
+    /**
+     * 是否发生过加载
+     *
+     * @return 是否有查询或复用
+     */
+    public boolean isUsed() {
+        return batchCount.sum() + reusedKeyCount.sum() > 0;
+    }
+}
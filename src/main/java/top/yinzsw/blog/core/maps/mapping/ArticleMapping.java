@@ -1,17 +1,15 @@
 package top.yinzsw.blog.core.maps.mapping;
 
+import top.yinzsw.blog.core.index.ArticleTagIndex;
+import top.yinzsw.blog.core.index.ReferenceDataSnapshot;
 import top.yinzsw.blog.core.maps.handler.MapTaskRunnerTemplate;
-import top.yinzsw.blog.core.maps.util.MapQueryUtils;
 import top.yinzsw.blog.model.dto.ArticleHotIndexDTO;
 import top.yinzsw.blog.model.dto.ArticleMapsDTO;
-import top.yinzsw.blog.model.po.ArticleMtmTagPO;
 import top.yinzsw.blog.model.po.ArticlePO;
-import top.yinzsw.blog.model.po.CategoryPO;
 import top.yinzsw.blog.model.po.TagPO;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -24,8 +22,16 @@ import java.util.stream.Collectors;
  */
 
 public final class ArticleMapping extends MapTaskRunnerTemplate<ArticlePO, ArticleMapsDTO> {
-    public ArticleMapping(Executor executor, List<ArticlePO> articlePOList) {
+    private static final Duration HOT_INDEX_TIMEOUT = Duration.ofMillis(300);
+
+    private final ReferenceDataSnapshot referenceDataSnapshot;
+    private final ArticleTagIndex articleTagIndex;
+
+    public ArticleMapping(Executor executor, List<ArticlePO> articlePOList,
+                          ReferenceDataSnapshot referenceDataSnapshot, ArticleTagIndex articleTagIndex) {
         super(executor, articlePOList, new ArticleMapsDTO());
+        this.referenceDataSnapshot = referenceDataSnapshot;
+        this.articleTagIndex = articleTagIndex;
     }
 
     private List<Long> getArticleIds() {
@@ -36,37 +42,46 @@ public final class ArticleMapping extends MapTaskRunnerTemplate<ArticlePO, Artic
         return getOriginList().stream().map(ArticlePO::getCategoryId).collect(Collectors.toList());
     }
 
+    /**
+     * 映射分类名, 从分类与标签快照中读取
+     *
+     * @return 文章映射
+     */
     public ArticleMapping mapCategory() {
-        addRunnable(() -> {
-            Map<Long, String> categoryNameMap = MapQueryUtils.create(CategoryPO::getId, getCategoryIds())
-                    .getKeyValueMap(CategoryPO::getCategoryName);
-
-            getContextDTO().setCategoryNameMap(categoryNameMap);
-        });
+        addRunnable(() -> getContextDTO().setCategoryNameMap(referenceDataSnapshot.getCategoryNameMap(getCategoryIds())));
         return this;
     }
 
+    /**
+     * 映射标签, 文章的标签id从标签索引中读取, 标签名从分类与标签快照中读取
+     *
+     * @return 文章映射
+     */
     public ArticleMapping mapTags() {
         addRunnable(() -> {
-            Map<Long, List<Long>> articleId2TagIds = MapQueryUtils.create(ArticleMtmTagPO::getArticleId, getArticleIds())
-                    .getGroupValueMap(ArticleMtmTagPO::getTagId);
-
-            List<Long> distinctTagIds = articleId2TagIds.values().stream().flatMap(Collection::stream).distinct().collect(Collectors.toList());
-            Map<Long, TagPO> tagId2Tag = MapQueryUtils.create(TagPO::getId, distinctTagIds)
-                    .queryWrapper(q -> q.select(TagPO::getId, TagPO::getTagName))
-                    .getKeyMap();
-
-            getContextDTO().setTagsMap(articleId2TagIds.keySet().stream()
-                    .collect(Collectors.toMap(Function.identity(), articleId -> {
-                        List<Long> tagIds = articleId2TagIds.get(articleId);
-                        return tagIds.stream().map(tagId2Tag::get).collect(Collectors.toList());
-                    })));
+            Map<Long, List<TagPO>> tagsMap = new HashMap<>();
+            getOriginList().forEach(articlePO -> {
+                List<TagPO> tagPOList = Arrays.stream(articleTagIndex.getTagIds(articlePO.getId()))
+                        .mapToObj(referenceDataSnapshot::getTag)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+                if (!tagPOList.isEmpty()) {
+                    tagsMap.put(articlePO.getId(), tagPOList);
+                }
+            });
+            getContextDTO().setTagsMap(tagsMap);
         });
         return this;
     }
 
+    /**
+     * 映射热度信息, 超时或失败时降级为空(点赞量与浏览量显示为0)
+     *
+     * @param mapFunction 热度信息查询
+     * @return 文章映射
+     */
     public ArticleMapping mapHotIndex(Function</*articleIds*/List<Long>, Map<Long, ArticleHotIndexDTO>> mapFunction) {
-        addRunnable(() -> getContextDTO().setHotIndexMap(mapFunction.apply(getArticleIds())));
+        addSupplier(() -> mapFunction.apply(getArticleIds()), HOT_INDEX_TIMEOUT, Collections::emptyMap, getContextDTO()::setHotIndexMap);
         return this;
     }
 }
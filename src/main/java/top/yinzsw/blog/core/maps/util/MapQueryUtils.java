@@ -1,31 +1,52 @@
 package top.yinzsw.blog.core.maps.util;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.toolkit.SimpleQuery;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.yinzsw.blog.core.maps.loader.RequestBatchLoader;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * lambda 映射表操作
+ * <p>
+ * 键列表按 {@value #CHUNK_SIZE} 个一组拆分为多条 IN 查询, 多组且指定了线程池时并行查询(事务内串行, 保证读到本事务的写入), 否则串行查询.
+ * 自定义查询条件只能按键分组, 不能跨键聚合. 在请求范围内, 未自定义查询条件且键数量不超过一组时, 查询交由请求级批量加载器合并与记忆
+ * </p>
  *
  * @author yinzsW
  * @since 23/01/26
  */
 
 public class MapQueryUtils<M, K> {
+
+    /**
+     * 每条 IN 查询的最大键数量
+     */
+    static final int CHUNK_SIZE = 1000;
+
     private final SFunction<M, K> keyFn;
     private final List<?> keys;
-    private final LambdaQueryWrapper<M> queryWrapper;
+    private final List<UnaryOperator<LambdaQueryWrapper<M>>> wrapperFns = new ArrayList<>();
+    private Executor executor;
 
     private MapQueryUtils(SFunction<M, K> keyFn, List<?> keys) {
         this.keyFn = keyFn;
         this.keys = keys;
-        this.queryWrapper = Wrappers.<M>lambdaQuery().in(keyFn, keys);
     }
 
     public static <M, K> MapQueryUtils<M, K> create(SFunction<M, K> keyFn, List<?> keys) {
@@ -33,28 +54,157 @@ public class MapQueryUtils<M, K> {
     }
 
     public MapQueryUtils<M, K> queryWrapper(Function<LambdaQueryWrapper<M>, LambdaQueryWrapper<M>> wrapperFn) {
-        wrapperFn.apply(queryWrapper);
+        wrapperFns.add(wrapperFn::apply);
+        return this;
+    }
+
+    /**
+     * 多组查询时在指定线程池中并行查询
+     *
+     * @param executor 线程池
+     * @return this
+     */
+    public MapQueryUtils<M, K> parallel(Executor executor) {
+        this.executor = executor;
         return this;
     }
 
     public <V> List<V> getValues(SFunction<M, V> valueFn) {
-        List<V> values = SimpleQuery.list(queryWrapper.select(valueFn), valueFn);
-        return keys.size() > 1 ? values.stream().distinct().collect(Collectors.toList()) : values;
+        List<V> values = fetch(valueFn).stream().map(valueFn).collect(Collectors.toList());
+        return keys.size() > 1 ? new ArrayList<>(new LinkedHashSet<>(values)) : values;
+    }
+
+    /**
+     * 查询去重后的 long 值, 保持首次出现的顺序
+     *
+     * @param valueFn 值属性
+     * @return 值数组
+     */
+    public long[] getLongValues(SFunction<M, Long> valueFn) {
+        return distinctLongs(fetch(valueFn), valueFn::apply);
     }
 
     public Map<K, M> getKeyMap() {
-        return SimpleQuery.keyMap(queryWrapper, keyFn);
+        Map<K, M> keyMap = new HashMap<>();
+        fetch().forEach(row -> keyMap.put(keyFn.apply(row), row));
+        return keyMap;
     }
 
     public <V> Map<K, V> getKeyValueMap(SFunction<M, V> valueFn) {
-        return SimpleQuery.map(queryWrapper.select(keyFn, valueFn), keyFn, valueFn);
+        Map<K, V> keyValueMap = new HashMap<>();
+        fetch(keyFn, valueFn).forEach(row -> keyValueMap.put(keyFn.apply(row), valueFn.apply(row)));
+        return keyValueMap;
     }
 
     public Map<K, List<M>> getGroupMap() {
-        return SimpleQuery.group(queryWrapper, keyFn);
+        return fetch().stream().collect(Collectors.groupingBy(keyFn));
     }
 
     public <V> Map<K, List<V>> getGroupValueMap(SFunction<M, V> valueFn) {
-        return SimpleQuery.group(queryWrapper.select(keyFn, valueFn), keyFn, Collectors.mapping(valueFn, Collectors.toList()));
+        return fetch(keyFn, valueFn).stream().collect(Collectors.groupingBy(keyFn, Collectors.mapping(valueFn, Collectors.toList())));
+    }
+
+    /**
+     * 按 long 键分组查询 long 值, 键类型必须为 {@link Long}
+     *
+     * @param valueFn 值属性
+     * @return 键->值数组
+     */
+    public Long2ObjectMap<long[]> getLongGroupValueMap(SFunction<M, Long> valueFn) {
+        return groupLongs(fetch(keyFn, valueFn), row -> ((Number) keyFn.apply(row)).longValue(), valueFn::apply);
+    }
+
+    /**
+     * 去重 long 值, 保持首次出现的顺序
+     *
+     * @param rows    记录
+     * @param valueFn 值属性
+     * @param <M>     记录类型
+     * @return 值数组
+     */
+    static <M> long[] distinctLongs(List<M> rows, ToLongFunction<M> valueFn) {
+        LongLinkedOpenHashSet values = new LongLinkedOpenHashSet(rows.size());
+        rows.forEach(row -> values.add(valueFn.applyAsLong(row)));
+        return values.toLongArray();
+    }
+
+    /**
+     * 按 long 键分组 long 值
+     *
+     * @param rows    记录
+     * @param keyFn   键属性
+     * @param valueFn 值属性
+     * @param <M>     记录类型
+     * @return 键->值数组
+     */
+    static <M> Long2ObjectMap<long[]> groupLongs(List<M> rows, ToLongFunction<M> keyFn, ToLongFunction<M> valueFn) {
+        Long2ObjectOpenHashMap<LongArrayList> groups = new Long2ObjectOpenHashMap<>();
+        rows.forEach(row -> groups.computeIfAbsent(keyFn.applyAsLong(row), key -> new LongArrayList(4)).add(valueFn.applyAsLong(row)));
+
+        Long2ObjectOpenHashMap<long[]> result = new Long2ObjectOpenHashMap<>(groups.size());
+        groups.long2ObjectEntrySet().fastForEach(entry -> result.put(entry.getLongKey(), entry.getValue().toLongArray()));
+        return result;
+    }
+
+    /**
+     * 按固定大小拆分列表
+     *
+     * @param list 列表
+     * @param size 每组大小
+     * @param <T>  元素类型
+     * @return 分组(原列表的视图)
+     */
+    static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + size)));
+        }
+        return chunks;
+    }
+
+    /**
+     * 查询记录
+     *
+     * @param columns 查询的列, 为空时查询所有列
+     * @return 记录
+     */
+    @SafeVarargs
+    private List<M> fetch(SFunction<M, ?>... columns) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        RequestBatchLoader loader = RequestBatchLoader.current();
+        if (Objects.nonNull(loader) && wrapperFns.isEmpty() && keys.size() <= CHUNK_SIZE) {
+            return loader.loadGroups(keyFn, keys).values().stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+
+        List<? extends List<?>> chunks = partition(keys, CHUNK_SIZE);
+        if (chunks.size() == 1 || Objects.isNull(executor) || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return chunks.stream().flatMap(chunk -> fetchChunk(chunk, columns).stream()).collect(Collectors.toList());
+        }
+
+        List<CompletableFuture<List<M>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> fetchChunk(chunk, columns), executor))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream().flatMap(future -> future.join().stream()).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<M> fetchChunk(List<?> chunk, SFunction<M, ?>[] columns) {
+        LambdaQueryWrapper<M> wrapper = Wrappers.<M>lambdaQuery().in(keyFn, chunk);
+        for (UnaryOperator<LambdaQueryWrapper<M>> wrapperFn : wrapperFns) {
+            wrapper = wrapperFn.apply(wrapper);
+        }
+        if (columns.length > 0) {
+            wrapper.select(columns);
+        }
+        Class<M> entityClass = (Class<M>) LambdaUtils.extract(keyFn).getInstantiatedClass();
+        return SimpleQuery.selectList(entityClass, wrapper);
     }
 }
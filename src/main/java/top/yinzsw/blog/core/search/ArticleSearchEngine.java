@@ -0,0 +1,515 @@
+package top.yinzsw.blog.core.search;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.*;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.search.uhighlight.WholeBreakIterator;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import top.yinzsw.blog.enums.ArticleStatusEnum;
+import top.yinzsw.blog.exception.BizException;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.mapper.ArticleContentMapper;
+import top.yinzsw.blog.mapper.ArticleMapper;
+import top.yinzsw.blog.model.dto.ArticleSearchHitDTO;
+import top.yinzsw.blog.model.po.ArticleContentPO;
+import top.yinzsw.blog.model.po.ArticlePO;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.BreakIterator;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 文章全文搜索引擎
+ * <p>
+ * 基于 Lucene 的嵌入式倒排索引, 中文按二元组切分, BM25 打分, 标题权重高于正文.
+ * 索引通过内存映射文件持久化到本地磁盘, 每次提交同时记录索引已包含的文章表版本, 重启后按文章表变更日志增量追上,
+ * 索引为空或变更日志无法覆盖落后的版本时从数据库全量重建.
+ * 本节点文章变更时增量更新并提交, 其他节点通过定期比较文章表版本按变更日志增量更新, 段合并由后台线程完成.
+ * 标题与正文在倒排表中记录词项偏移量, 高亮片段直接依据偏移量截取, 无需重新分词
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/07
+ */
+@Slf4j
+@Component
+public class ArticleSearchEngine {
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_DELETED = "deleted";
+
+    /**
+     * 索引结构版本, 字段定义变化时递增, 打开版本不一致的索引时会清空重建
+     */
+    private static final String INDEX_VERSION = "2";
+    private static final String INDEX_VERSION_KEY = "version";
+
+    /**
+     * 提交数据中记录索引已包含的文章表版本
+     */
+    private static final String ARTICLE_VERSION_KEY = "articleVersion";
+
+    /**
+     * 存储原文并在倒排表中记录偏移量的文本字段
+     */
+    private static final FieldType HIGHLIGHT_TEXT_TYPE = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        HIGHLIGHT_TEXT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        HIGHLIGHT_TEXT_TYPE.freeze();
+    }
+
+    /**
+     * 标题相对正文的权重
+     */
+    private static final float TITLE_BOOST = 3.0f;
+
+    /**
+     * 全量重建时每批读取的文章数
+     */
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    /**
+     * 正文片段的目标长度
+     */
+    private static final int SNIPPET_LENGTH = 120;
+
+    private final Path indexPath;
+    private final TableVersionManager tableVersionManager;
+    private final ArticleMapper articleMapper;
+    private final ArticleContentMapper articleContentMapper;
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+
+    /**
+     * 增量更新, 同步与全量重建互斥
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * 索引已包含的文章表版本, 随提交一起持久化
+     */
+    private volatile long loadedVersion = Long.MIN_VALUE;
+
+    public ArticleSearchEngine(@Value("${blog.search.index-path}") Path indexPath, TableVersionManager tableVersionManager,
+                               ArticleMapper articleMapper, ArticleContentMapper articleContentMapper) {
+        this.indexPath = indexPath;
+        this.tableVersionManager = tableVersionManager;
+        this.articleMapper = articleMapper;
+        this.articleContentMapper = articleContentMapper;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexPath);
+        directory = new MMapDirectory(indexPath);
+        Map<String, String> commitData = DirectoryReader.indexExists(directory)
+                ? SegmentInfos.readLatestCommit(directory).getUserData() : Collections.emptyMap();
+        boolean isCompatible = INDEX_VERSION.equals(commitData.get(INDEX_VERSION_KEY));
+        if (isCompatible && commitData.containsKey(ARTICLE_VERSION_KEY)) {
+            loadedVersion = Long.parseLong(commitData.get(ARTICLE_VERSION_KEY));
+        }
+
+        TieredMergePolicy mergePolicy = new TieredMergePolicy();
+        mergePolicy.setSegmentsPerTier(5);
+        mergePolicy.setMaxMergeAtOnce(5);
+        mergePolicy.setDeletesPctAllowed(20);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(isCompatible ? IndexWriterConfig.OpenMode.APPEND : IndexWriterConfig.OpenMode.CREATE)
+                .setSimilarity(new BM25Similarity())
+                .setMergePolicy(mergePolicy)
+                .setMergeScheduler(new ConcurrentMergeScheduler());
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    /**
+     * 启动时追上文章表版本, 索引为空(首次启动或索引目录被清理)或无法增量追上时全量重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncOnStartup() {
+        refreshLock.lock();
+        try {
+            doSyncVersion();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 定期比较文章表版本, 其他节点写入后按变更日志增量更新, 正在同步或重建时跳过本轮
+     */
+    @Scheduled(initialDelay = 2, fixedDelay = 2, timeUnit = TimeUnit.SECONDS)
+    public void syncVersion() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+
+        try {
+            doSyncVersion();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 从数据库全量重建索引, 并删除数据库中已不存在的文章
+     */
+    public void reconcile() {
+        refreshLock.lock();
+        try {
+            //先读取版本再加载数据, 索引的版本不会比数据新, 避免漏掉加载期间的变更
+            long version = tableVersionManager.getVersion(ArticlePO.class);
+            log.info("开始全量重建文章搜索索引...");
+            Set<String> staleIds = listIndexedIds();
+            long lastId = 0L;
+            int count = 0;
+            List<ArticlePO> articlePOList;
+            do {
+                articlePOList = articleMapper.selectListUncached(Wrappers.lambdaQuery(ArticlePO.class)
+                        .select(ArticlePO::getId, ArticlePO::getArticleTitle, ArticlePO::getArticleStatus, ArticlePO::getIsDeleted)
+                        .gt(ArticlePO::getId, lastId)
+                        .orderByAsc(ArticlePO::getId)
+                        .last("LIMIT " + REBUILD_BATCH_SIZE));
+                fillArticleContents(articlePOList);
+                for (ArticlePO articlePO : articlePOList) {
+                    indexWriter.updateDocument(new Term(FIELD_ID, articlePO.getId().toString()), toDocument(articlePO));
+                    staleIds.remove(articlePO.getId().toString());
+                    lastId = articlePO.getId();
+                }
+                count += articlePOList.size();
+            } while (articlePOList.size() == REBUILD_BATCH_SIZE);
+
+            for (String staleId : staleIds) {
+                indexWriter.deleteDocuments(new Term(FIELD_ID, staleId));
+            }
+            loadedVersion = version;
+            commitIndex();
+            log.info("文章搜索索引重建完毕, 共{}篇, 移除失效文章{}篇", count, staleIds.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 搜索文章, 按相关度从高到低返回
+     *
+     * @param keywords   关键词
+     * @param onlyPublic 是否只搜索公开且未删除的文章
+     * @param limit      最大返回数量
+     * @return 文章id列表
+     */
+    public List<Long> search(String keywords, boolean onlyPublic, int limit) {
+        if (!StringUtils.hasText(keywords)) {
+            return Collections.emptyList();
+        }
+
+        Query query = buildQuery(buildKeywordsQuery(keywords), onlyPublic);
+        IndexSearcher searcher = acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, limit);
+            List<Long> articleIds = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                String id = searcher.doc(scoreDoc.doc, Set.of(FIELD_ID)).get(FIELD_ID);
+                articleIds.add(Long.valueOf(id));
+            }
+            return articleIds;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * 搜索文章并生成高亮片段, 按相关度从高到低返回
+     * <p>
+     * 标题整体高亮, 正文截取命中最密集的片段, 正文未命中时返回开头片段
+     * </p>
+     *
+     * @param keywords   关键词
+     * @param onlyPublic 是否只搜索公开且未删除的文章
+     * @param limit      最大返回数量
+     * @return 搜索命中结果列表
+     */
+    public List<ArticleSearchHitDTO> searchWithHighlights(String keywords, boolean onlyPublic, int limit) {
+        if (!StringUtils.hasText(keywords)) {
+            return Collections.emptyList();
+        }
+
+        Query keywordsQuery = buildKeywordsQuery(keywords);
+        IndexSearcher searcher = acquire();
+        try {
+            TopDocs topDocs = searcher.search(buildQuery(keywordsQuery, onlyPublic), limit);
+            UnifiedHighlighter highlighter = new UnifiedHighlighter(searcher, analyzer) {
+                @Override
+                protected BreakIterator getBreakIterator(String field) {
+                    return FIELD_TITLE.equals(field) ? new WholeBreakIterator() :
+                            LengthGoalBreakIterator.createClosestToLength(BreakIterator.getSentenceInstance(Locale.ROOT), SNIPPET_LENGTH);
+                }
+            };
+            highlighter.setFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "...", true));
+            Map<String, String[]> highlights = highlighter.highlightFields(new String[]{FIELD_TITLE, FIELD_CONTENT},
+                    keywordsQuery, topDocs, new int[]{1, 1});
+
+            List<ArticleSearchHitDTO> articleSearchHitDTOList = new ArrayList<>(topDocs.scoreDocs.length);
+            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                Document document = searcher.doc(topDocs.scoreDocs[i].doc, Set.of(FIELD_ID, FIELD_TITLE));
+                articleSearchHitDTOList.add(new ArticleSearchHitDTO(
+                        Long.valueOf(document.get(FIELD_ID)),
+                        document.get(FIELD_TITLE),
+                        highlights.get(FIELD_TITLE)[i],
+                        highlights.get(FIELD_CONTENT)[i]));
+            }
+            return articleSearchHitDTOList;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * 以数据库中的最新状态增量更新文章索引, 数据库中不存在的文章从索引中删除.
+     * 变更在递增文章表版本后由 {@link #advanceVersion(long)} 提交
+     *
+     * @param articleIds 文章id列表
+     */
+    public void refresh(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+
+        refreshLock.lock();
+        try {
+            updateDocuments(articleIds);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 本节点写入并增量更新后推进索引版本并提交到磁盘, 仅当递增前的版本就是索引版本时推进, 否则说明期间有其他节点写入, 等待定期同步
+     *
+     * @param version 本次写入递增后的文章表版本
+     */
+    public void advanceVersion(long version) {
+        refreshLock.lock();
+        try {
+            if (loadedVersion == version - 1) {
+                loadedVersion = version;
+            }
+            commitIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private Query buildKeywordsQuery(String keywords) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[]{FIELD_TITLE, FIELD_CONTENT}, analyzer,
+                Map.of(FIELD_TITLE, TITLE_BOOST, FIELD_CONTENT, 1.0f));
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+
+        try {
+            return parser.parse(QueryParser.escape(keywords));
+        } catch (ParseException e) {
+            throw new BizException("无法解析的搜索关键词");
+        }
+    }
+
+    private Query buildQuery(Query keywordsQuery, boolean onlyPublic) {
+        if (!onlyPublic) {
+            return keywordsQuery;
+        }
+
+        return new BooleanQuery.Builder()
+                .add(keywordsQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_STATUS, ArticleStatusEnum.PUBLIC.name())), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(FIELD_DELETED, Boolean.FALSE.toString())), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    /**
+     * 追上文章表版本, 调用方需持有刷新锁
+     */
+    private void doSyncVersion() {
+        long version = tableVersionManager.getVersion(ArticlePO.class);
+        if (version == loadedVersion) {
+            return;
+        }
+
+        //索引为空, 版本回退(redis 数据丢失)或变更日志无法覆盖落后的版本时全量重建
+        boolean isIncremental = loadedVersion != Long.MIN_VALUE && version > loadedVersion && indexWriter.getDocStats().numDocs > 0;
+        Set<Long> changedIds = isIncremental ? tableVersionManager.listChangedIds(ArticlePO.class, loadedVersion, version) : null;
+        if (Objects.isNull(changedIds)) {
+            reconcile();
+            return;
+        }
+
+        try {
+            updateDocuments(changedIds);
+            loadedVersion = version;
+            commitIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 以数据库中的最新状态更新文章文档, 数据库中不存在的文章删除文档, 绕过二级缓存读取
+     *
+     * @param articleIds 文章id列表
+     */
+    private void updateDocuments(Collection<Long> articleIds) throws IOException {
+        List<Long> articleIdList = new ArrayList<>(articleIds);
+        for (int from = 0; from < articleIdList.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> chunk = articleIdList.subList(from, Math.min(from + REBUILD_BATCH_SIZE, articleIdList.size()));
+            List<ArticlePO> articlePOList = articleMapper.selectListUncached(Wrappers.lambdaQuery(ArticlePO.class)
+                    .select(ArticlePO::getId, ArticlePO::getArticleTitle, ArticlePO::getArticleStatus, ArticlePO::getIsDeleted)
+                    .in(ArticlePO::getId, chunk));
+            fillArticleContents(articlePOList);
+            Map<Long, ArticlePO> articlePOMap = articlePOList.stream().collect(Collectors.toMap(ArticlePO::getId, Function.identity()));
+            for (Long articleId : chunk) {
+                Term idTerm = new Term(FIELD_ID, articleId.toString());
+                ArticlePO articlePO = articlePOMap.get(articleId);
+                if (Objects.isNull(articlePO)) {
+                    indexWriter.deleteDocuments(idTerm);
+                } else {
+                    indexWriter.updateDocument(idTerm, toDocument(articlePO));
+                }
+            }
+        }
+    }
+
+    /**
+     * 提交到磁盘并记录索引已包含的文章表版本, 未提交的变更在进程异常退出时会丢失, 重启后按变更日志补齐
+     */
+    private void commitIndex() throws IOException {
+        indexWriter.setLiveCommitData(Map.of(INDEX_VERSION_KEY, INDEX_VERSION,
+                ARTICLE_VERSION_KEY, String.valueOf(loadedVersion)).entrySet());
+        indexWriter.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * 列出索引中的所有文章id
+     *
+     * @return 文章id集合
+     */
+    private Set<String> listIndexedIds() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = acquire();
+        try {
+            Set<String> articleIds = new HashSet<>();
+            for (LeafReaderContext leafReaderContext : searcher.getIndexReader().leaves()) {
+                LeafReader leafReader = leafReaderContext.reader();
+                Bits liveDocs = leafReader.getLiveDocs();
+                for (int doc = 0; doc < leafReader.maxDoc(); doc++) {
+                    if (Objects.isNull(liveDocs) || liveDocs.get(doc)) {
+                        articleIds.add(leafReader.document(doc, Set.of(FIELD_ID)).get(FIELD_ID));
+                    }
+                }
+            }
+            return articleIds;
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * 从文章内容表填充文章内容, 绕过二级缓存读取
+     *
+     * @param articlePOList 文章列表
+     */
+    private void fillArticleContents(List<ArticlePO> articlePOList) {
+        if (articlePOList.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> articleContentMap = articleContentMapper
+                .selectBatchIdsUncached(articlePOList.stream().map(ArticlePO::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(ArticleContentPO::getArticleId, ArticleContentPO::getArticleContent));
+        articlePOList.forEach(articlePO -> articlePO.setArticleContent(articleContentMap.get(articlePO.getId())));
+    }
+
+    private Document toDocument(ArticlePO articlePO) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, articlePO.getId().toString(), Field.Store.YES));
+        document.add(new Field(FIELD_TITLE, Objects.toString(articlePO.getArticleTitle(), ""), HIGHLIGHT_TEXT_TYPE));
+        document.add(new Field(FIELD_CONTENT, Objects.toString(articlePO.getArticleContent(), ""), HIGHLIGHT_TEXT_TYPE));
+        document.add(new StringField(FIELD_STATUS, Objects.toString(articlePO.getArticleStatus(), ""), Field.Store.NO));
+        document.add(new StringField(FIELD_DELETED, String.valueOf(Boolean.TRUE.equals(articlePO.getIsDeleted())), Field.Store.NO));
+        return document;
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("释放文章搜索器失败", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package top.yinzsw.blog.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 多标签匹配方式枚举
+ *
+ * @author yinzsW
+ * @since 23/02/10
+ */
+
+@Getter
+@AllArgsConstructor
+public enum TagMatchEnum {
+    /**
+     * 包含任意一个标签
+     */
+    ANY("包含任意标签"),
+
+    /**
+     * 包含全部标签
+     */
+    ALL("包含全部标签");
+
+    /**
+     * 描述
+     */
+    private final String desc;
+}
@@ -0,0 +1,34 @@
+package top.yinzsw.blog.extension.mybatisplus;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+
+/**
+ * 近似计数分页模型
+ * <p>
+ * 总数最多统计到 {@link #countLimit} 条, 超过时总数即为 {@link #countLimit}, 用于筛选条件复杂且数据量大的后台列表.
+ * 请求的页从 {@link #countLimit} 条之后开始时改为精确计数
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/05
+ */
+@Getter
+public class ApproximatePage<T> extends Page<T> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 默认计数上限
+     */
+    public static final long DEFAULT_COUNT_LIMIT = 1000L;
+
+    /**
+     * 计数上限
+     */
+    private final long countLimit;
+
+    public ApproximatePage(long current, long size, long countLimit) {
+        super(current, size);
+        this.countLimit = countLimit;
+    }
+}
@@ -0,0 +1,114 @@
+package top.yinzsw.blog.extension.mybatisplus;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import top.yinzsw.blog.manager.TableVersionManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 带计数缓存的分页拦截器
+ * <p>
+ * 对白名单内的表, 以 表版本 + 查询语句及参数 作为键缓存 COUNT 结果, 表版本递增后旧的计数自然失效.
+ * 另外支持 {@link ApproximatePage} 近似计数, 只统计到上限为止; 请求的页超出上限时改为精确计数, 否则超出上限的页无法访问
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/05
+ */
+public class CachedPaginationInnerInterceptor extends PaginationInnerInterceptor {
+
+    /**
+     * 未执行计数查询时的总数标记
+     */
+    private static final long NOT_COUNTED = -1L;
+
+    private final TableVersionManager tableVersionManager;
+
+    /**
+     * 允许缓存计数的表实体类型
+     */
+    private final Set<Class<?>> cacheableEntityClasses;
+
+    private final Cache<String, Long> countCache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    public CachedPaginationInnerInterceptor(TableVersionManager tableVersionManager, Set<Class<?>> cacheableEntityClasses) {
+        this.tableVersionManager = tableVersionManager;
+        this.cacheableEntityClasses = cacheableEntityClasses;
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        Class<?> entityClass = getEntityClass(ms);
+        if (Objects.isNull(page) || page.getSize() < 0 || !page.searchCount() || Objects.isNull(entityClass)) {
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+
+        //分页参数在之后才拼接到语句中, 此时的缓存键只包含查询条件
+        String countKey = String.join(":",
+                isApproximate(page) ? "approximate" : "exact",
+                String.valueOf(tableVersionManager.getVersion(entityClass)),
+                executor.createCacheKey(ms, parameter, RowBounds.DEFAULT, boundSql).toString());
+        Long total = countCache.getIfPresent(countKey);
+        if (Objects.nonNull(total)) {
+            page.setTotal(total);
+            return continuePage(page);
+        }
+
+        //先置为未计数标记, 只缓存实际执行了计数查询得到的总数, 避免把默认的0缓存下来
+        long originalTotal = page.getTotal();
+        page.setTotal(NOT_COUNTED);
+        boolean isContinue = super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        if (page.getTotal() == NOT_COUNTED) {
+            page.setTotal(originalTotal);
+        } else {
+            countCache.put(countKey, page.getTotal());
+        }
+        return isContinue;
+    }
+
+    @Override
+    public String autoCountSql(IPage<?> page, String sql) {
+        if (isApproximate(page)) {
+            long countLimit = ((ApproximatePage<?>) page).getCountLimit();
+            return String.format("SELECT COUNT(*) FROM (%s LIMIT %d) TOTAL", sql, countLimit);
+        }
+        return super.autoCountSql(page, sql);
+    }
+
+    /**
+     * 是否使用近似计数, 请求的页从计数上限之后开始时使用精确计数
+     *
+     * @param page 分页模型
+     * @return 是否近似计数
+     */
+    private boolean isApproximate(IPage<?> page) {
+        return page instanceof ApproximatePage && page.offset() < ((ApproximatePage<?>) page).getCountLimit();
+    }
+
+    private Class<?> getEntityClass(MappedStatement ms) {
+        Optional<Class<?>> entityClass = ms.getResultMaps().stream()
+                .<Class<?>>map(ResultMap::getType)
+                .filter(cacheableEntityClasses::contains)
+                .findFirst();
+        return entityClass.orElse(null);
+    }
+}
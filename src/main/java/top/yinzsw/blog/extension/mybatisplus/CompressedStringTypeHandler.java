@@ -0,0 +1,114 @@
+package top.yinzsw.blog.extension.mybatisplus;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * 压缩字符串类型处理器
+ * <p>
+ * 字符串以 UTF-8 编码存储为二进制, 首字节为格式标记: 0 原文, 1 LZ4压缩(后跟4字节原文长度).
+ * 超过阈值的内容才压缩, 短内容压缩收益低于解压开销
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/16
+ */
+@MappedTypes(String.class)
+@MappedJdbcTypes(JdbcType.BLOB)
+public class CompressedStringTypeHandler extends BaseTypeHandler<String> {
+    private static final byte FORMAT_RAW = 0;
+    private static final byte FORMAT_LZ4 = 1;
+
+    /**
+     * 压缩阈值(字节)
+     */
+    private static final int COMPRESS_THRESHOLD = 1024;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decode(cs.getBytes(columnIndex));
+    }
+
+    /**
+     * 编码字符串
+     *
+     * @param value 字符串
+     * @return 带格式标记的二进制
+     */
+    public static byte[] encode(String value) {
+        byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < COMPRESS_THRESHOLD) {
+            return ByteBuffer.allocate(1 + raw.length).put(FORMAT_RAW).put(raw).array();
+        }
+
+        byte[] compressed = new byte[COMPRESSOR.maxCompressedLength(raw.length)];
+        int compressedLength = COMPRESSOR.compress(raw, 0, raw.length, compressed, 0, compressed.length);
+        //压缩后没有变小(如已压缩的内容)时保存原文
+        if (compressedLength + 4 >= raw.length) {
+            return ByteBuffer.allocate(1 + raw.length).put(FORMAT_RAW).put(raw).array();
+        }
+        return ByteBuffer.allocate(5 + compressedLength)
+                .put(FORMAT_LZ4)
+                .putInt(raw.length)
+                .put(compressed, 0, compressedLength)
+                .array();
+    }
+
+    /**
+     * 解码字符串
+     *
+     * @param bytes 带格式标记的二进制
+     * @return 字符串
+     */
+    public static String decode(byte[] bytes) {
+        if (Objects.isNull(bytes)) {
+            return null;
+        }
+        if (bytes.length == 0) {
+            return "";
+        }
+
+        switch (bytes[0]) {
+            case FORMAT_RAW:
+                return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case FORMAT_LZ4:
+                int rawLength = ByteBuffer.wrap(bytes, 1, 4).getInt();
+                byte[] raw = new byte[rawLength];
+                DECOMPRESSOR.decompress(bytes, 5, raw, 0, rawLength);
+                return new String(raw, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("未知的压缩格式: " + bytes[0]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package top.yinzsw.blog.extension.web;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import top.yinzsw.blog.core.maps.loader.RequestBatchLoader;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Objects;
+
+/**
+ * 为每个请求绑定请求级批量加载器, 请求结束时输出批量加载统计
+ * <p>
+ * 异步请求在首次分派结束时解除线程绑定, 已提交的映射任务仍持有该加载器
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/17
+ */
+@Slf4j
+@Component
+public class RequestBatchLoaderInterceptor implements AsyncHandlerInterceptor {
+    private static final String LOADER_ATTRIBUTE = RequestBatchLoader.class.getName();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        //异步请求再次分派时只写出结果, 不再加载数据
+        if (DispatcherType.ASYNC.equals(request.getDispatcherType())) {
+            return true;
+        }
+        request.setAttribute(LOADER_ATTRIBUTE, RequestBatchLoader.open());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestBatchLoader.close();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        //异步请求的统计在再次分派结束时输出, 此时加载器已不在当前线程上
+        RequestBatchLoader loader = (RequestBatchLoader) request.getAttribute(LOADER_ATTRIBUTE);
+        if (Objects.nonNull(loader) && loader.isUsed() && log.isDebugEnabled()) {
+            log.debug("{} {} 批量加载统计: {}", request.getMethod(), request.getRequestURI(), loader.getStatistics());
+        }
+        RequestBatchLoader.close();
+    }
+}
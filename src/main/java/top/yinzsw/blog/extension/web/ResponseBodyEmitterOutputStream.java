@@ -0,0 +1,72 @@
+package top.yinzsw.blog.extension.web;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * 把写入的字节按块发送给 {@link ResponseBodyEmitter}
+ * <p>
+ * {@link StreamingResponseBody} 只能使用全局的异步请求超时时间, 需要单独设置超时时间的长耗时下载通过本类改用 {@link ResponseBodyEmitter} 输出
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/20
+ */
+public class ResponseBodyEmitterOutputStream extends OutputStream {
+
+    /**
+     * 每次发送的字节数
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final ResponseBodyEmitter emitter;
+    private final MediaType mediaType;
+
+    private ResponseBodyEmitterOutputStream(ResponseBodyEmitter emitter, MediaType mediaType) {
+        this.emitter = emitter;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * 在线程池中执行响应体写入, 以单独的超时时间输出
+     *
+     * @param body      响应体
+     * @param mediaType 响应类型
+     * @param timeout   超时时间
+     * @param executor  线程池
+     * @return 响应发送器
+     */
+    public static ResponseBodyEmitter emit(StreamingResponseBody body, MediaType mediaType, Duration timeout, Executor executor) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        executor.execute(() -> {
+            try (OutputStream outputStream = new BufferedOutputStream(new ResponseBodyEmitterOutputStream(emitter, mediaType), CHUNK_SIZE)) {
+                body.writeTo(outputStream);
+            } catch (IOException | RuntimeException e) {
+                emitter.completeWithError(e);
+                return;
+            }
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len > 0) {
+            emitter.send(Arrays.copyOfRange(b, off, off + len), mediaType);
+        }
+    }
+}
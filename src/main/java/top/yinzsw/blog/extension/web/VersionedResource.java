@@ -0,0 +1,29 @@
+package top.yinzsw.blog.extension.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 标记接口的响应只依赖指定数据表的内容
+ * <p>
+ * 以这些表的版本号生成 ETag, 客户端携带的 {@code If-None-Match} 与当前版本一致时直接返回 304, 不执行接口方法.
+ * 只能用于响应与当前用户无关, 且不包含浏览量, 点赞量等不递增表版本的数据的 GET 接口
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/14
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface VersionedResource {
+
+    /**
+     * 响应依赖的表实体类型
+     */
+    Class<?>[] value();
+}
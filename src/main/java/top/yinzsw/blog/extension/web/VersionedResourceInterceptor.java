@@ -0,0 +1,60 @@
+package top.yinzsw.blog.extension.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import top.yinzsw.blog.manager.TableVersionManager;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 版本化资源的条件请求处理
+ * <p>
+ * 表版本在读取数据之前获取, 并且只在事务提交后递增, 因此 ETag 对应的版本不会比响应内容更新, 不会出现错误的 304.
+ * ETag 中包含应用启动时间, 重新部署后响应结构可能变化, 旧的 ETag 全部失效
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/14
+ */
+@Component
+@RequiredArgsConstructor
+public class VersionedResourceInterceptor implements HandlerInterceptor {
+    private static final String INSTANCE_TAG = Long.toString(System.currentTimeMillis(), 36);
+
+    private final TableVersionManager tableVersionManager;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        //异步请求在首次分派时已完成条件判断
+        if (!(handler instanceof HandlerMethod) || DispatcherType.ASYNC.equals(request.getDispatcherType())) {
+            return true;
+        }
+
+        VersionedResource versionedResource = ((HandlerMethod) handler).getMethodAnnotation(VersionedResource.class);
+        if (Objects.isNull(versionedResource)) {
+            return true;
+        }
+
+        List<Long> versions = tableVersionManager.getVersions(versionedResource.value());
+        String version = versions.stream().map(tableVersion -> Long.toString(tableVersion, 36)).collect(Collectors.joining("-"));
+        return !new ServletWebRequest(request, response).checkNotModified(toETag(version));
+    }
+
+    /**
+     * 生成弱 ETag, 所有版本化资源(包括预渲染的响应)均使用该格式
+     *
+     * @param version 内容版本
+     * @return ETag
+     */
+    public static String toETag(String version) {
+        return "W/\"" + INSTANCE_TAG + "-" + version + "\"";
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Service;
+import top.yinzsw.blog.core.counter.ArticleLikeWriter;
+import top.yinzsw.blog.core.counter.ArticleViewCounter;
 import top.yinzsw.blog.manager.ResourceManager;
 import top.yinzsw.blog.manager.WebConfigManager;
 
@@ -22,11 +24,16 @@ import top.yinzsw.blog.manager.WebConfigManager;
 public class AppStartEventListener implements ApplicationListener<ApplicationStartedEvent> {
     private final WebConfigManager webConfigManager;
     private final ResourceManager resourceManager;
+    private final ArticleLikeWriter articleLikeWriter;
+    private final ArticleViewCounter articleViewCounter;
     private @Value("${blog.initialization}") Boolean initialization;
 
     @SneakyThrows
     @Override
     public void onApplicationEvent(ApplicationStartedEvent event) {
+        articleLikeWriter.recoverIfAbsent();
+        articleViewCounter.recoverIfAbsent();
+
         if (!initialization) {
             return;
         }
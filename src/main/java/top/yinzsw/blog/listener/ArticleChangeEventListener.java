@@ -0,0 +1,52 @@
+package top.yinzsw.blog.listener;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.yinzsw.blog.core.counter.ArticleHotCounter;
+import top.yinzsw.blog.core.event.ArticleChangeEvent;
+import top.yinzsw.blog.core.index.ArticleOutlineIndex;
+import top.yinzsw.blog.core.index.ArticleTagIndex;
+import top.yinzsw.blog.core.search.ArticleSearchEngine;
+import top.yinzsw.blog.manager.ArticleManager;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.model.po.ArticlePO;
+
+/**
+ * 监听文章变更
+ * <p>
+ * 在事务提交后执行, 避免其他请求在提交前把旧数据重新加载进缓存
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/01
+ */
+@Service
+@RequiredArgsConstructor
+public class ArticleChangeEventListener {
+    private final ArticleManager articleManager;
+    private final ArticleOutlineIndex articleOutlineIndex;
+    private final ArticleTagIndex articleTagIndex;
+    private final ArticleHotCounter articleHotCounter;
+    private final TableVersionManager tableVersionManager;
+    private final ArticleSearchEngine articleSearchEngine;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChange(ArticleChangeEvent event) {
+        long version;
+        try {
+            articleManager.deleteArticleCache(event.getArticleIds());
+            articleOutlineIndex.refresh(event.getArticleIds());
+            articleHotCounter.recordPublish(articleOutlineIndex.listArticles(event.getArticleIds()));
+            articleSearchEngine.refresh(event.getArticleIds());
+        } finally {
+            //最后递增表版本, 版本对应的ETag生效前内存索引均已刷新; 刷新失败时同样递增, 否则数据已提交但缓存与其他节点无法发现变更.
+            //监听器在事务提交后执行, 此时注册的事务同步不会再执行, 因此直接递增, 同时记录变更的文章供其他节点增量同步
+            version = tableVersionManager.incrementVersion(ArticlePO.class, event.getArticleIds());
+        }
+        //本节点的索引已增量刷新, 推进索引版本, 避免定期对账时全量重新加载; 刷新失败时不推进, 由定期对账修正
+        articleOutlineIndex.advanceVersion(version);
+        articleTagIndex.advanceVersion(version);
+        articleSearchEngine.advanceVersion(version);
+    }
+}
@@ -0,0 +1,92 @@
+package top.yinzsw.blog.listener;
+
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import top.yinzsw.blog.core.index.ArticleOutlineIndex;
+import top.yinzsw.blog.core.index.ArticleTagIndex;
+import top.yinzsw.blog.core.search.ArticleSearchEngine;
+import top.yinzsw.blog.manager.ArticleManager;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.model.dto.ArticleContentSummaryDTO;
+import top.yinzsw.blog.model.po.ArticlePO;
+import top.yinzsw.blog.util.MarkdownUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 回填文章内容概要
+ * <p>
+ * 应用启动后在后台分批为缺少预计算字段(摘要, 字数, 阅读时长, 目录)的历史文章补齐数据, 全部补齐后每次启动只需一次空查询
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/09
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleSummaryBackfillListener implements ApplicationListener<ApplicationReadyEvent> {
+    private static final int BATCH_SIZE = 100;
+
+    private final ArticleManager articleManager;
+    private final TableVersionManager tableVersionManager;
+    private final ArticleOutlineIndex articleOutlineIndex;
+    private final ArticleTagIndex articleTagIndex;
+    private final ArticleSearchEngine articleSearchEngine;
+
+    @Async
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long lastId = 0L;
+        int count = 0;
+        List<ArticlePO> articlePOList;
+        do {
+            articlePOList = Db.lambdaQuery(ArticlePO.class)
+                    .select(ArticlePO::getId)
+                    .isNull(ArticlePO::getWordCount)
+                    .gt(ArticlePO::getId, lastId)
+                    .orderByAsc(ArticlePO::getId)
+                    .last("LIMIT " + BATCH_SIZE)
+                    .list();
+            if (articlePOList.isEmpty()) {
+                break;
+            }
+
+            Map<Long, String> articleContentMap = articleManager.getArticleContents(articlePOList.stream()
+                    .map(ArticlePO::getId).collect(Collectors.toList()));
+            List<ArticlePO> summaryPOList = articlePOList.stream().map(articlePO -> {
+                String articleContent = Objects.toString(articleContentMap.get(articlePO.getId()), "");
+                ArticleContentSummaryDTO articleContentSummaryDTO = MarkdownUtils.summarize(articleContent);
+                return new ArticlePO().setId(articlePO.getId())
+                        .setArticleContentDigest(articleContentSummaryDTO.getArticleContentDigest())
+                        .setWordCount(articleContentSummaryDTO.getWordCount())
+                        .setReadingTime(articleContentSummaryDTO.getReadingTime())
+                        .setArticleToc(articleContentSummaryDTO.getArticleToc());
+            }).collect(Collectors.toList());
+            Db.updateBatchById(summaryPOList);
+
+            List<Long> articleIds = summaryPOList.stream().map(ArticlePO::getId).collect(Collectors.toList());
+            articleManager.deleteArticleCache(articleIds);
+            //摘要等字段出现在文章列表中, 每批写入后递增表版本使版本化缓存失效;
+            //这些字段不在内存索引中, 本节点的索引直接推进版本, 无需重新加载
+            long version = tableVersionManager.incrementVersion(ArticlePO.class, articleIds);
+            articleOutlineIndex.advanceVersion(version);
+            articleTagIndex.advanceVersion(version);
+            articleSearchEngine.advanceVersion(version);
+            lastId = articleIds.get(articleIds.size() - 1);
+            count += articleIds.size();
+        } while (articlePOList.size() == BATCH_SIZE);
+
+        if (count > 0) {
+            log.info("文章内容概要回填完毕, 共{}篇", count);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package top.yinzsw.blog.manager;
 
 import top.yinzsw.blog.model.dto.ArticleHotIndexDTO;
+import top.yinzsw.blog.model.dto.ArticlePayloadDTO;
 import top.yinzsw.blog.model.po.CategoryPO;
+import top.yinzsw.blog.model.vo.ArticleVO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 文章通用业务处理层
@@ -21,7 +25,7 @@ public interface ArticleManager {
     String ARTICLE_VIEW_COUNT = "blog:article:views";
 
     /**
-     * 文章点击量 防刷保护
+     * 文章点击量 防刷保护, 按小时轮换的布隆过滤器, 后缀为窗口序号
      */
     String ARTICLE_VIEW_ANTI_PREFIX = "blog:article:views:anti:";
 
@@ -30,6 +34,26 @@ public interface ArticleManager {
      */
     String ARTICLE_LIKE_COUNT = "blog:article:likes";
 
+    /**
+     * 文章点赞 待写回数据库的变更队列
+     */
+    String ARTICLE_LIKE_PENDING = "blog:article:likes:pending";
+
+    /**
+     * 文章点赞 已被认领正在写回数据库的变更批次, 批次内容的键为 该前缀:批次id
+     */
+    String ARTICLE_LIKE_CLAIMED = "blog:article:likes:claimed";
+
+    /**
+     * 文章热度榜(前向衰减), 后缀为基准时间周期序号
+     */
+    String ARTICLE_HOT_PREFIX = "blog:article:hot:";
+
+    /**
+     * 文章详情缓存
+     */
+    String ARTICLE_DETAIL_PREFIX = "blog:article:detail:";
+
     /**
      * 获取文章点赞量信息 与 文章浏览量信息
      *
@@ -39,22 +63,74 @@ public interface ArticleManager {
     Map<Long, ArticleHotIndexDTO> getHotIndex(List<Long> articleIds);
 
     /**
-     * 修改文章点赞数
+     * 点赞或取消点赞文章, 用户点赞集合与文章点赞量原子更新, 变更异步写回数据库
      *
+     * @param uid       用户id
      * @param articleId 文章id
-     * @param delta     递增值
+     * @param like      点赞或取消点赞
+     * @return 点赞状态是否发生变化
      */
-    void updateLikeCount(Long articleId, Long delta);
+    boolean toggleLike(Long uid, Long articleId, boolean like);
 
     /**
-     * 修改文章浏览量
+     * 修改文章浏览量, 同一用户(或ip)一小时内对同一文章只计一次, 增量异步写回
      *
      * @param articleId 文章id
      */
     void updateViewsCount(Long articleId);
 
+    /**
+     * 获取文章详情缓存(redis), 未命中时使用加载策略加载并回填缓存
+     * <p>
+     * 每次调用都会返回一个新的对象, 调用方可以放心修改. 本地缓存由按版本缓存的预渲染响应承担
+     * </p>
+     *
+     * @param articleId 文章id
+     * @param loadFn    加载策略, 返回 {@code null} 时不缓存
+     * @return 文章详情
+     */
+    ArticleVO getArticleCache(Long articleId, Function<Long, ArticleVO> loadFn);
+
+    /**
+     * 获取预渲染的文章详情响应, 以文章id与文章, 分类, 标签表的版本作为缓存键, 任一表变更后自动失效
+     *
+     * @param articleId 文章id
+     * @param loadFn    加载策略, 返回 {@code null} 时不缓存
+     * @return 预渲染的响应, 文章不存在时返回 {@code null}
+     */
+    ArticlePayloadDTO getArticlePayload(Long articleId, Function<Long, ArticleVO> loadFn);
+
+    /**
+     * 删除文章详情缓存
+     *
+     * @param articleIds 文章id列表
+     */
+    void deleteArticleCache(List<Long> articleIds);
+
     /////////////////////////////////////////////////////////////MYSQL//////////////////////////////////////////////////////
 
+    /**
+     * 批量获取文章内容, 文章内容单独存储, 仅在需要渲染正文时读取
+     *
+     * @param articleIds 文章id列表
+     * @return 文章id->文章内容
+     */
+    Map<Long, String> getArticleContents(Collection<Long> articleIds);
+
+    /**
+     * 批量保存文章内容, 已存在时覆盖
+     *
+     * @param articleId2Content 文章id->文章内容
+     */
+    void saveArticleContents(Map<Long, String> articleId2Content);
+
+    /**
+     * 删除文章内容, 仅删除文章记录已不存在的内容
+     *
+     * @param articleIds 文章id列表
+     */
+    void deleteArticleContents(List<Long> articleIds);
+
     /**
      * 根据标签查询文章id
      *
@@ -64,12 +140,13 @@ public interface ArticleManager {
     List<Long> listArticleIds(List<Long> tagIds);
 
     /**
-     * 查询相关文章id列表
+     * 查询相关文章id列表, 按标签重合数量从多到少排序, 仅包含公开且未删除的文章
      *
      * @param articleId 文章id
+     * @param size      数量
      * @return 相关文章id
      */
-    List<Long> listRelatedArticleIds(Long articleId);
+    List<Long> listRelatedArticleIds(Long articleId, int size);
 
     /**
      * 保存分类
@@ -94,4 +171,27 @@ public interface ArticleManager {
      * @param articleIds 文章id列表
      */
     void deleteTagsMapping(List<Long> articleIds);
+
+    /**
+     * 批量保存分类, 已存在的分类不重复保存
+     *
+     * @param categoryNames 分类名
+     * @return 分类名(小写)->分类id
+     */
+    Map<String, Long> saveCategories(Collection<String> categoryNames);
+
+    /**
+     * 批量保存标签, 已存在的标签不重复保存
+     *
+     * @param tagNames 标签名
+     * @return 标签名(小写)->标签id
+     */
+    Map<String, Long> saveTags(Collection<String> tagNames);
+
+    /**
+     * 批量保存新文章的标签映射, 文章不能已有标签映射
+     *
+     * @param articleId2TagIds 文章id->标签id列表
+     */
+    void saveTagsMapping(Map<Long, List<Long>> articleId2TagIds);
 }
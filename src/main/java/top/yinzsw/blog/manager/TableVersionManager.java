@@ -0,0 +1,71 @@
+package top.yinzsw.blog.manager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 数据表版本通用业务处理层
+ * <p>
+ * 每张表维护一个单调递增的版本号, 表数据发生写入后递增, 用于使依赖该表的缓存整体失效
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/05
+ */
+
+public interface TableVersionManager {
+
+    /**
+     * 数据表版本
+     */
+    String TABLE_VERSION = "blog:table:version";
+
+    /**
+     * 数据表变更日志前缀, 版本->本次变更的主键
+     */
+    String TABLE_CHANGE_LOG_PREFIX = "blog:table:changes:";
+
+    /**
+     * 获取数据表当前版本
+     *
+     * @param entityClass 表实体类型
+     * @return 版本号
+     */
+    long getVersion(Class<?> entityClass);
+
+    /**
+     * 批量获取数据表当前版本, 版本不存在(从未写入或 redis 数据丢失)时以当前时间戳初始化,
+     * 避免版本号从头开始后与丢失前的版本重复
+     *
+     * @param entityClasses 表实体类型
+     * @return 版本号列表, 与参数顺序一致
+     */
+    List<Long> getVersions(Class<?>... entityClasses);
+
+    /**
+     * 递增数据表版本, 存在事务时在事务提交后执行
+     *
+     * @param entityClass 表实体类型
+     */
+    void updateVersion(Class<?> entityClass);
+
+    /**
+     * 立即递增数据表版本并记录本次变更的主键, 用于事务提交后的回调中(此时注册的事务同步不会再执行)
+     *
+     * @param entityClass 表实体类型
+     * @param ids         变更的主键
+     * @return 递增后的版本号
+     */
+    long incrementVersion(Class<?> entityClass, Collection<Long> ids);
+
+    /**
+     * 查询两个版本之间变更的主键
+     *
+     * @param entityClass 表实体类型
+     * @param fromVersion 起始版本(不包含)
+     * @param toVersion   截止版本(包含)
+     * @return 变更的主键, 期间存在未记录变更日志的版本(日志已淘汰或版本未经 {@link #incrementVersion(Class, Collection)} 递增)时返回 {@code null}
+     */
+    Set<Long> listChangedIds(Class<?> entityClass, long fromVersion, long toVersion);
+}
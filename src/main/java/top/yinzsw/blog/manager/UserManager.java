@@ -36,6 +36,11 @@ public interface UserManager {
      */
     String USER_LIKED_ARTICLES_PREFIX = "blog:user:liked_articles:";
 
+    /**
+     * 用户点赞文章的时间, 文章id->点赞时间戳(毫秒), 取消点赞时据此扣除点赞加上的热度
+     */
+    String USER_LIKED_ARTICLES_TIME_PREFIX = "blog:user:liked_articles_time:";
+
     /**
      * 用户点赞过的评论
      */
@@ -65,31 +70,6 @@ public interface UserManager {
      */
     UserLikedDTO getUserLikeInfo(Long userId);
 
-    /**
-     * 判断文章是否已经被用户点赞过
-     *
-     * @param uid       用户id
-     * @param articleId 文章id
-     * @return 状态
-     */
-    boolean isLikedArticle(Long uid, String articleId);
-
-    /**
-     * 保存点赞的文章
-     *
-     * @param uid       用户id
-     * @param articleId 文章id
-     */
-    void saveLikedArticle(Long uid, String articleId);
-
-    /**
-     * 删除点赞过的文章
-     *
-     * @param uid       用户id
-     * @param articleId 文章id
-     */
-    void deleteLikedArticle(Long uid, String articleId);
-
 /////////////////////////////////////////////////////MYSQL//////////////////////////////////////////////////////////////
 
     /**
@@ -1,27 +1,56 @@
 package top.yinzsw.blog.manager.impl;
 
 import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 import top.yinzsw.blog.core.context.HttpContext;
+import top.yinzsw.blog.core.counter.ArticleHotCounter;
+import top.yinzsw.blog.core.counter.ArticleLikeWriter;
+import top.yinzsw.blog.core.counter.ArticleViewCounter;
+import top.yinzsw.blog.core.index.ArticleOutlineIndex;
+import top.yinzsw.blog.core.index.ArticleTagIndex;
+import top.yinzsw.blog.core.index.ReferenceDataSnapshot;
 import top.yinzsw.blog.core.maps.util.MapQueryUtils;
 import top.yinzsw.blog.exception.BizException;
 import top.yinzsw.blog.manager.ArticleManager;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.manager.UserManager;
+import top.yinzsw.blog.mapper.ArticleContentMapper;
+import top.yinzsw.blog.mapper.ArticleMtmTagMapper;
 import top.yinzsw.blog.model.dto.ArticleHotIndexDTO;
+import top.yinzsw.blog.model.dto.ArticlePayloadDTO;
+import top.yinzsw.blog.model.po.ArticleContentPO;
 import top.yinzsw.blog.model.po.ArticleMtmTagPO;
+import top.yinzsw.blog.model.po.ArticlePO;
 import top.yinzsw.blog.model.po.CategoryPO;
 import top.yinzsw.blog.model.po.TagPO;
+import top.yinzsw.blog.model.vo.ArticleVO;
+import top.yinzsw.blog.model.vo.ResponseVO;
+import top.yinzsw.blog.util.TransactionUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 文章数据映射模型
@@ -32,28 +61,77 @@ import java.util.stream.IntStream;
 @Service
 @RequiredArgsConstructor
 public class ArticleManagerImpl implements ArticleManager {
+    /**
+     * 浏览去重窗口, 同一访客对同一文章在当前与上一窗口内只计一次
+     */
+    private static final Duration VIEW_DEDUP_WINDOW = Duration.ofHours(1);
+
+    /**
+     * 每个窗口的布隆过滤器位数(2MB), 每小时一百万次浏览时误判率约0.5%
+     */
+    private static final long VIEW_DEDUP_BITS = 1L << 24;
+
+    /**
+     * 布隆过滤器哈希函数个数
+     */
+    private static final int VIEW_DEDUP_HASH_COUNT = 3;
+
+    private static final RedisScript<Long> VIEW_DEDUP_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/article_view_dedup.lua"), Long.class);
+
+    private static final RedisScript<Long> LIKE_TOGGLE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/article_like_toggle.lua"), Long.class);
+
     private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
     private final HttpContext httpContext;
+    private final ArticleViewCounter articleViewCounter;
+    private final ArticleHotCounter articleHotCounter;
+    private final ArticleTagIndex articleTagIndex;
+    private final ArticleOutlineIndex articleOutlineIndex;
+    private final TableVersionManager tableVersionManager;
+    private final ReferenceDataSnapshot referenceDataSnapshot;
+    private final ObjectMapper objectMapper;
+    private final ArticleMtmTagMapper articleMtmTagMapper;
+    private final ArticleContentMapper articleContentMapper;
+    private final Executor mapQueryExecutor;
+
+    /**
+     * 预渲染的文章详情响应, 内容版本->响应, 表版本变化后旧版本不再命中, 按容量淘汰, 写入后最多保留30分钟
+     */
+    private final Cache<String, ArticlePayloadDTO> articlePayloadCache = Caffeine.newBuilder()
+            .maximumWeight(64L * 1024 * 1024)
+            .<String, ArticlePayloadDTO>weigher((version, payload) -> payload.getJsonBytes().length + payload.getGzipBytes().length)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * 文章热度本地微缓存, 短时间内的突发流量对每篇文章只访问一次redis
+     */
+    private final Cache<Long, ArticleHotIndexDTO> hotIndexCache = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(3))
+            .build();
 
     @Override
     public Map<Long, ArticleHotIndexDTO> getHotIndex(List<Long> articleIds) {
-        Object[] ids = articleIds.stream().map(Object::toString).toArray();
-        List<Double> likedScore = stringRedisTemplate.opsForZSet().score(ARTICLE_LIKE_COUNT, ids);
-        List<Double> viewsScore = stringRedisTemplate.opsForZSet().score(ARTICLE_VIEW_COUNT, ids);
-        return IntStream.range(0, ids.length).boxed().collect(Collectors.toMap(articleIds::get, i -> {
-            Long liked = Optional.ofNullable(likedScore)
-                    .flatMap(scores -> Optional.ofNullable(scores.get(i)))
-                    .map(Double::longValue).orElse(0L);
-            Long views = Optional.ofNullable(viewsScore)
-                    .flatMap(scores -> Optional.ofNullable(scores.get(i)))
-                    .map(Double::longValue).orElse(0L);
-            return new ArticleHotIndexDTO(liked, views);
-        }));
+        return new Long2ObjectOpenHashMap<>(hotIndexCache.getAll(articleIds, this::loadHotIndex));
     }
 
     @Override
-    public void updateLikeCount(Long articleId, Long delta) {
-        stringRedisTemplate.opsForZSet().incrementScore(ARTICLE_LIKE_COUNT, String.valueOf(articleId), delta);
+    public boolean toggleLike(Long uid, Long articleId, boolean like) {
+        List<String> keys = List.of(UserManager.USER_LIKED_ARTICLES_PREFIX + uid, ARTICLE_LIKE_COUNT, ARTICLE_LIKE_PENDING,
+                articleHotCounter.currentKey(), UserManager.USER_LIKED_ARTICLES_TIME_PREFIX + uid);
+        Long changed = stringRedisTemplate.execute(LIKE_TOGGLE_SCRIPT, keys, articleId.toString(), like ? "1" : "0",
+                ArticleLikeWriter.toChangeRecord(uid, articleId, like), String.valueOf(ArticleHotCounter.LIKE_WEIGHT),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(articleHotCounter.currentLandmarkMillis()),
+                String.valueOf(ArticleHotCounter.HALF_LIFE.toMillis()));
+        if (!Long.valueOf(1L).equals(changed)) {
+            return false;
+        }
+
+        hotIndexCache.invalidate(articleId);
+        return true;
     }
 
     @Override
@@ -65,30 +143,186 @@ public class ArticleManagerImpl implements ArticleManager {
                 return httpContext.getUserIpAddress();
             }
         };
-        String antiKey = ARTICLE_VIEW_ANTI_PREFIX + suffixSupplier.get();
-        Boolean hasKey = stringRedisTemplate.hasKey(antiKey);
-        if (Boolean.FALSE.equals(hasKey)) {
-            stringRedisTemplate.opsForValue().set(antiKey, "", Duration.ofHours(1));
-            stringRedisTemplate.opsForZSet().incrementScore(ARTICLE_VIEW_COUNT, String.valueOf(articleId), 1L);
+        long window = System.currentTimeMillis() / VIEW_DEDUP_WINDOW.toMillis();
+        List<String> keys = List.of(ARTICLE_VIEW_ANTI_PREFIX + window, ARTICLE_VIEW_ANTI_PREFIX + (window - 1));
+        String[] args = new String[VIEW_DEDUP_HASH_COUNT + 1];
+        long hash = hash64(suffixSupplier.get() + ":" + articleId);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < VIEW_DEDUP_HASH_COUNT; i++) {
+            args[i] = String.valueOf(Integer.toUnsignedLong(hash1 + i * hash2) % VIEW_DEDUP_BITS);
+        }
+        args[VIEW_DEDUP_HASH_COUNT] = String.valueOf(VIEW_DEDUP_WINDOW.multipliedBy(2).toSeconds());
+
+        Long isFirstView = stringRedisTemplate.execute(VIEW_DEDUP_SCRIPT, keys, (Object[]) args);
+        if (Long.valueOf(1L).equals(isFirstView)) {
+            articleViewCounter.increment(articleId);
         }
     }
 
     @Override
-    public List<Long> listArticleIds(List<Long> tagIds) {
-        return MapQueryUtils.create(ArticleMtmTagPO::getTagId, tagIds).getValues(ArticleMtmTagPO::getArticleId);
+    public ArticlePayloadDTO getArticlePayload(Long articleId, Function<Long, ArticleVO> loadFn) {
+        List<Long> versions = tableVersionManager.getVersions(ArticlePO.class, CategoryPO.class, TagPO.class);
+        String version = articleId + "-" + versions.stream().map(String::valueOf).collect(Collectors.joining("-"));
+        ArticlePayloadDTO articlePayloadDTO = articlePayloadCache.getIfPresent(version);
+        if (Objects.nonNull(articlePayloadDTO)) {
+            return articlePayloadDTO;
+        }
+
+        ArticleVO articleVO = loadFn.apply(articleId);
+        if (Objects.isNull(articleVO)) {
+            return null;
+        }
+        articlePayloadDTO = renderPayload(version, articleVO);
+        //响应内嵌本节点索引中的上一篇/下一篇/相关文章, 索引尚未追上该版本时不缓存, 由定期对账追上后再缓存
+        long articleVersion = versions.get(0);
+        if (articleOutlineIndex.getLoadedVersion() >= articleVersion && articleTagIndex.getLoadedVersion() >= articleVersion) {
+            articlePayloadCache.put(version, articlePayloadDTO);
+        }
+        return articlePayloadDTO;
     }
 
     @Override
-    public List<Long> listRelatedArticleIds(Long articleId) {
-        List<Long> tagIds = MapQueryUtils.create(ArticleMtmTagPO::getArticleId, List.of(articleId))
-                .getValues(ArticleMtmTagPO::getTagId);
-        return Db.lambdaQuery(ArticleMtmTagPO.class)
-                .ne(ArticleMtmTagPO::getArticleId, articleId)
-                .in(ArticleMtmTagPO::getTagId, tagIds)
-                .list().stream()
-                .map(ArticleMtmTagPO::getArticleId)
-                .distinct()
+    public ArticleVO getArticleCache(Long articleId, Function<Long, ArticleVO> loadFn) {
+        String articleDetailKey = ARTICLE_DETAIL_PREFIX + articleId;
+        Object cachedArticle = redisTemplate.opsForValue().get(articleDetailKey);
+        if (cachedArticle instanceof ArticleVO) {
+            return (ArticleVO) cachedArticle;
+        }
+
+        ArticleVO articleVO = loadFn.apply(articleId);
+        if (Objects.nonNull(articleVO)) {
+            redisTemplate.opsForValue().set(articleDetailKey, articleVO, Duration.ofHours(1));
+        }
+        return articleVO;
+    }
+
+    /**
+     * 在一次管道往返中同时查询点赞量与浏览量
+     *
+     * @param articleIds 文章id列表
+     * @return 热度信息
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, ArticleHotIndexDTO> loadHotIndex(Set<? extends Long> articleIds) {
+        long[] ids = articleIds.stream().mapToLong(Long::longValue).toArray();
+        byte[][] members = Arrays.stream(ids).mapToObj(id -> String.valueOf(id).getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zMScore(ARTICLE_LIKE_COUNT.getBytes(StandardCharsets.UTF_8), members);
+            connection.zSetCommands().zMScore(ARTICLE_VIEW_COUNT.getBytes(StandardCharsets.UTF_8), members);
+            return null;
+        });
+        List<Double> likedScores = (List<Double>) results.get(0);
+        List<Double> viewsScores = (List<Double>) results.get(1);
+
+        Long2ObjectOpenHashMap<ArticleHotIndexDTO> hotIndexMap = new Long2ObjectOpenHashMap<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            hotIndexMap.put(ids[i], new ArticleHotIndexDTO(toCount(likedScores, i), toCount(viewsScores, i)));
+        }
+        return hotIndexMap;
+    }
+
+    /**
+     * 渲染完整响应体, 并以最高压缩级别预先压缩
+     *
+     * @param version   内容版本
+     * @param articleVO 文章详情
+     * @return 预渲染的响应
+     */
+    @SneakyThrows
+    private ArticlePayloadDTO renderPayload(String version, ArticleVO articleVO) {
+        byte[] jsonBytes = objectMapper.writeValueAsBytes(ResponseVO.success(articleVO));
+        ByteArrayOutputStream gzipBuffer = new ByteArrayOutputStream(jsonBytes.length / 3);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipBuffer) {{
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }}) {
+            gzipOutputStream.write(jsonBytes);
+        }
+        return new ArticlePayloadDTO(version, jsonBytes, gzipBuffer.toByteArray());
+    }
+
+    /**
+     * 64位 FNV-1a 哈希, 再经 murmur3 finalizer 打散
+     *
+     * @param value 字符串
+     * @return 哈希值
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long toCount(List<Double> scores, int index) {
+        if (Objects.isNull(scores)) {
+            return 0L;
+        }
+        Double score = scores.get(index);
+        return Objects.isNull(score) ? 0L : score.longValue();
+    }
+
+    @Override
+    public void deleteArticleCache(List<Long> articleIds) {
+        List<String> articleDetailKeys = articleIds.stream().map(articleId -> ARTICLE_DETAIL_PREFIX + articleId).collect(Collectors.toList());
+        redisTemplate.delete(articleDetailKeys);
+    }
+
+    @Override
+    public Map<Long, String> getArticleContents(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        //文章内容只在缓存未命中时读取, 绕过二级缓存, 避免读到其他节点写入前的旧内容
+        return articleContentMapper.selectBatchIdsUncached(articleIds).stream()
+                .collect(Collectors.toMap(ArticleContentPO::getArticleId, ArticleContentPO::getArticleContent));
+    }
+
+    @Override
+    public void saveArticleContents(Map<Long, String> articleId2Content) {
+        List<ArticleContentPO> articleContentPOList = articleId2Content.entrySet().stream()
+                .map(entry -> new ArticleContentPO(entry.getKey(), Objects.toString(entry.getValue(), "")))
                 .collect(Collectors.toList());
+        if (!articleContentPOList.isEmpty()) {
+            articleContentMapper.upsertBatch(articleContentPOList);
+        }
+    }
+
+    @Override
+    public void deleteArticleContents(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> existArticleIds = Db.lambdaQuery(ArticlePO.class)
+                .select(ArticlePO::getId)
+                .in(ArticlePO::getId, articleIds)
+                .list().stream()
+                .map(ArticlePO::getId)
+                .collect(Collectors.toSet());
+        List<Long> removedArticleIds = articleIds.stream().filter(articleId -> !existArticleIds.contains(articleId)).collect(Collectors.toList());
+        if (!removedArticleIds.isEmpty()) {
+            articleContentMapper.deleteBatchIds(removedArticleIds);
+        }
+    }
+
+    @Override
+    public List<Long> listArticleIds(List<Long> tagIds) {
+        return LongArrayList.wrap(MapQueryUtils.create(ArticleMtmTagPO::getTagId, tagIds)
+                .parallel(mapQueryExecutor)
+                .getLongValues(ArticleMtmTagPO::getArticleId));
+    }
+
+    @Override
+    public List<Long> listRelatedArticleIds(Long articleId, int size) {
+        return articleTagIndex.listRelatedArticleIds(articleId, size);
     }
 
     @Override
@@ -99,6 +333,8 @@ public class ArticleManagerImpl implements ArticleManager {
                 .orElseGet(() -> {
                     CategoryPO categoryPO = new CategoryPO().setCategoryName(categoryName);
                     Db.save(categoryPO);
+                    tableVersionManager.updateVersion(CategoryPO.class);
+                    TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
                     return categoryPO;
                 });
     }
@@ -106,29 +342,115 @@ public class ArticleManagerImpl implements ArticleManager {
     @Transactional(rollbackFor = Exception.class)
     @Override
     public boolean saveTagsAndMapping(List<String> tagNames, Long articleId) {
-        //获取未保存的标签名
-        List<TagPO> existTagPOList = Db.lambdaQuery(TagPO.class).in(TagPO::getTagName, tagNames).list();
-        List<TagPO> newTagPOList = tagNames.stream()
-                .filter(tagName -> existTagPOList.stream().map(TagPO::getTagName).noneMatch(tagName::equalsIgnoreCase))
-                .map(tageName -> new TagPO().setTagName(tageName))
-                .collect(Collectors.toList());
+        //按名称(忽略大小写)解析标签id, 不存在的标签先保存
+        Set<Long> tagIds = new HashSet<>(saveTags(tagNames).values());
 
-        //保存新的标签名
-        if (!CollectionUtils.isEmpty(newTagPOList)) {
-            Db.saveBatch(newTagPOList);
+        //只写入新旧映射的差集, 标签未变化时不产生任何写入
+        Set<Long> existTagIds = Db.lambdaQuery(ArticleMtmTagPO.class)
+                .select(ArticleMtmTagPO::getTagId)
+                .eq(ArticleMtmTagPO::getArticleId, articleId)
+                .list().stream()
+                .map(ArticleMtmTagPO::getTagId)
+                .collect(Collectors.toSet());
+        List<Long> removedTagIds = existTagIds.stream().filter(tagId -> !tagIds.contains(tagId)).collect(Collectors.toList());
+        List<ArticleMtmTagPO> addedArticleMtmTagPOList = tagIds.stream()
+                .filter(tagId -> !existTagIds.contains(tagId))
+                .map(tagId -> new ArticleMtmTagPO(articleId, tagId, null))
+                .collect(Collectors.toList());
+        if (!removedTagIds.isEmpty()) {
+            Db.lambdaUpdate(ArticleMtmTagPO.class)
+                    .eq(ArticleMtmTagPO::getArticleId, articleId)
+                    .in(ArticleMtmTagPO::getTagId, removedTagIds)
+                    .remove();
+        }
+        if (!addedArticleMtmTagPOList.isEmpty()) {
+            articleMtmTagMapper.insertBatch(addedArticleMtmTagPOList);
         }
 
-        //更新标签与文章映射关系
-        deleteTagsMapping(List.of(articleId));
-        List<Long> existTagIds = existTagPOList.stream().map(TagPO::getId).collect(Collectors.toList());
-        List<ArticleMtmTagPO> articleMtmTagPOList = newTagPOList.stream()
-                .map(TagPO::getId).collect(Collectors.toCollection(() -> existTagIds)).stream()
-                .map(tagId -> new ArticleMtmTagPO().setArticleId(articleId).setTagId(tagId)).collect(Collectors.toList());
-        return Db.saveBatch(articleMtmTagPOList);
+        //事务提交后再更新标签索引, 回滚时索引保持不变
+        TransactionUtils.runAfterCommit(() -> articleTagIndex.replaceArticleTags(articleId, tagIds));
+        return true;
     }
 
     @Override
     public void deleteTagsMapping(List<Long> articleIds) {
         Db.lambdaUpdate(ArticleMtmTagPO.class).in(ArticleMtmTagPO::getArticleId, articleIds).remove();
+        TransactionUtils.runAfterCommit(() -> articleTagIndex.removeArticles(articleIds));
+    }
+
+    @Override
+    public Map<String, Long> saveCategories(Collection<String> categoryNames) {
+        Map<String, String> lowerName2Name = toLowerNameMap(categoryNames);
+        if (lowerName2Name.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, Long> lowerName2Id = Db.lambdaQuery(CategoryPO.class)
+                .select(CategoryPO::getId, CategoryPO::getCategoryName)
+                .in(CategoryPO::getCategoryName, lowerName2Name.values())
+                .list().stream()
+                .collect(Collectors.toMap(categoryPO -> categoryPO.getCategoryName().toLowerCase(Locale.ROOT), CategoryPO::getId, (id1, id2) -> id1));
+        List<CategoryPO> newCategoryPOList = lowerName2Name.entrySet().stream()
+                .filter(entry -> !lowerName2Id.containsKey(entry.getKey()))
+                .map(entry -> new CategoryPO().setCategoryName(entry.getValue()))
+                .collect(Collectors.toList());
+        if (!newCategoryPOList.isEmpty()) {
+            Db.saveBatch(newCategoryPOList);
+            newCategoryPOList.forEach(categoryPO -> lowerName2Id.put(categoryPO.getCategoryName().toLowerCase(Locale.ROOT), categoryPO.getId()));
+            tableVersionManager.updateVersion(CategoryPO.class);
+            TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
+        }
+        return lowerName2Id;
+    }
+
+    @Override
+    public Map<String, Long> saveTags(Collection<String> tagNames) {
+        Map<String, String> lowerName2Name = toLowerNameMap(tagNames);
+        if (lowerName2Name.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, Long> lowerName2Id = Db.lambdaQuery(TagPO.class)
+                .select(TagPO::getId, TagPO::getTagName)
+                .in(TagPO::getTagName, lowerName2Name.values())
+                .list().stream()
+                .collect(Collectors.toMap(tagPO -> tagPO.getTagName().toLowerCase(Locale.ROOT), TagPO::getId, (id1, id2) -> id1));
+        List<TagPO> newTagPOList = lowerName2Name.entrySet().stream()
+                .filter(entry -> !lowerName2Id.containsKey(entry.getKey()))
+                .map(entry -> new TagPO().setTagName(entry.getValue()))
+                .collect(Collectors.toList());
+        if (!newTagPOList.isEmpty()) {
+            Db.saveBatch(newTagPOList);
+            newTagPOList.forEach(tagPO -> lowerName2Id.put(tagPO.getTagName().toLowerCase(Locale.ROOT), tagPO.getId()));
+            tableVersionManager.updateVersion(TagPO.class);
+            TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
+        }
+        return lowerName2Id;
+    }
+
+    @Override
+    public void saveTagsMapping(Map<Long, List<Long>> articleId2TagIds) {
+        List<ArticleMtmTagPO> articleMtmTagPOList = articleId2TagIds.entrySet().stream()
+                .flatMap(entry -> entry.getValue().stream().distinct().map(tagId -> new ArticleMtmTagPO(entry.getKey(), tagId, null)))
+                .collect(Collectors.toList());
+        if (!articleMtmTagPOList.isEmpty()) {
+            articleMtmTagMapper.insertBatch(articleMtmTagPOList);
+        }
+
+        //事务提交后再更新标签索引, 回滚时索引保持不变
+        TransactionUtils.runAfterCommit(() -> articleId2TagIds.forEach(articleTagIndex::replaceArticleTags));
+    }
+
+    /**
+     * 名称去重(忽略大小写), 保留首次出现的写法
+     *
+     * @param names 名称
+     * @return 小写名称->名称
+     */
+    private static Map<String, String> toLowerNameMap(Collection<String> names) {
+        return names.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .collect(Collectors.toMap(name -> name.toLowerCase(Locale.ROOT), Function.identity(), (name1, name2) -> name1, LinkedHashMap::new));
     }
 }
@@ -0,0 +1,108 @@
+package top.yinzsw.blog.manager.impl;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.util.TransactionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 数据表版本通用业务处理层实现
+ *
+ * @author yinzsW
+ * @since 23/02/05
+ */
+
+@Service
+@RequiredArgsConstructor
+public class TableVersionManagerImpl implements TableVersionManager {
+    private static final RedisScript<Long> INCREMENT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/table_version_increment.lua"), Long.class);
+
+    /**
+     * 每张表的变更日志最多保留的条数, 其他节点落后更多版本时全量对账
+     */
+    private static final int CHANGE_LOG_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public long getVersion(Class<?> entityClass) {
+        return getVersions(entityClass).get(0);
+    }
+
+    @Override
+    public List<Long> getVersions(Class<?>... entityClasses) {
+        List<Object> tableNames = Arrays.stream(entityClasses).map(this::getTableName).collect(Collectors.toList());
+        List<Object> versions = stringRedisTemplate.opsForHash().multiGet(TABLE_VERSION, tableNames);
+
+        List<Long> result = new ArrayList<>(tableNames.size());
+        for (int i = 0; i < tableNames.size(); i++) {
+            Object version = versions.get(i);
+            result.add(Objects.nonNull(version) ? Long.parseLong(version.toString()) : initVersion(tableNames.get(i).toString()));
+        }
+        return result;
+    }
+
+    @Override
+    public void updateVersion(Class<?> entityClass) {
+        String tableName = getTableName(entityClass);
+        TransactionUtils.runAfterCommit(() -> stringRedisTemplate.opsForHash().increment(TABLE_VERSION, tableName, 1L));
+    }
+
+    @Override
+    public long incrementVersion(Class<?> entityClass, Collection<Long> ids) {
+        String tableName = getTableName(entityClass);
+        String joinedIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        Long version = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(TABLE_VERSION, TABLE_CHANGE_LOG_PREFIX + tableName),
+                tableName, joinedIds, String.valueOf(CHANGE_LOG_SIZE));
+        return Objects.requireNonNull(version);
+    }
+
+    @Override
+    public Set<Long> listChangedIds(Class<?> entityClass, long fromVersion, long toVersion) {
+        if (fromVersion >= toVersion) {
+            return new HashSet<>();
+        }
+
+        String changeLogKey = TABLE_CHANGE_LOG_PREFIX + getTableName(entityClass);
+        Set<String> changes = stringRedisTemplate.opsForZSet().rangeByScore(changeLogKey, fromVersion + 1, toVersion);
+        //每个版本对应一条日志, 数量不足说明有版本的变更未记录
+        if (Objects.isNull(changes) || changes.size() != toVersion - fromVersion) {
+            return null;
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (String change : changes) {
+            String joinedIds = change.substring(change.indexOf(':') + 1);
+            if (StringUtils.hasText(joinedIds)) {
+                Arrays.stream(joinedIds.split(",")).map(Long::valueOf).forEach(ids::add);
+            }
+        }
+        return ids;
+    }
+
+    private long initVersion(String tableName) {
+        String initialVersion = String.valueOf(System.currentTimeMillis());
+        stringRedisTemplate.opsForHash().putIfAbsent(TABLE_VERSION, tableName, initialVersion);
+        Object version = stringRedisTemplate.opsForHash().get(TABLE_VERSION, tableName);
+        return Long.parseLong(Objects.requireNonNullElse(version, initialVersion).toString());
+    }
+
+    private String getTableName(Class<?> entityClass) {
+        return TableInfoHelper.getTableInfo(entityClass).getTableName();
+    }
+}
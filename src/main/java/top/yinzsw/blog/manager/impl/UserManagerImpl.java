@@ -64,21 +64,6 @@ public class UserManagerImpl implements UserManager {
                 .setLikedCommentSet(likedComments);
     }
 
-    @Override
-    public boolean isLikedArticle(Long uid, String articleId) {
-        return Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(USER_LIKED_ARTICLES_PREFIX + uid, articleId));
-    }
-
-    @Override
-    public void saveLikedArticle(Long uid, String articleId) {
-        stringRedisTemplate.opsForSet().add(USER_LIKED_ARTICLES_PREFIX + uid, articleId);
-    }
-
-    @Override
-    public void deleteLikedArticle(Long uid, String articleId) {
-        stringRedisTemplate.opsForSet().remove(USER_LIKED_ARTICLES_PREFIX + uid, articleId);
-    }
-
     @Override
     public UserPO getUserByNameOrEmail(String identity) {
         if (!StringUtils.hasText(identity)) {
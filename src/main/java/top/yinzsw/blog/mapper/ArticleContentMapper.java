@@ -0,0 +1,54 @@
+package top.yinzsw.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import top.yinzsw.blog.extension.mybatisplus.CompressedStringTypeHandler;
+import top.yinzsw.blog.model.po.ArticleContentPO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author yinzsW
+ * @description 针对表【article_content(文章内容表)】的数据库操作Mapper
+ * @createDate 2023-02-16 10:12:37
+ * @Entity top.yinzsw.blog.model.po.ArticleContentPO
+ */
+
+@CacheNamespace(readWrite = false, blocking = true)
+public interface ArticleContentMapper extends BaseMapper<ArticleContentPO> {
+
+    /**
+     * 以一条多行插入语句批量保存文章内容, 已存在时覆盖
+     *
+     * @param articleContentPOList 文章内容
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO article_content (article_id, article_content) VALUES " +
+            "<foreach collection='articleContents' item='c' separator=','>" +
+            "(#{c.articleId}, #{c.articleContent, typeHandler=top.yinzsw.blog.extension.mybatisplus.CompressedStringTypeHandler})" +
+            "</foreach> ON DUPLICATE KEY UPDATE article_content = VALUES(article_content)" +
+            "</script>")
+    int upsertBatch(@Param("articleContents") Collection<ArticleContentPO> articleContentPOList);
+
+    /**
+     * 批量查询文章内容, 不读写二级缓存, 二级缓存只在本节点写入时刷新, 其他节点写入后可能读到旧数据
+     *
+     * @param articleIds 文章id列表
+     * @return 文章内容
+     */
+    @Select("<script>" +
+            "SELECT article_id, article_content FROM article_content WHERE article_id IN " +
+            "<foreach collection='articleIds' item='articleId' open='(' separator=',' close=')'>#{articleId}</foreach>" +
+            "</script>")
+    @Results(@Result(column = "article_content", property = "articleContent", typeHandler = CompressedStringTypeHandler.class))
+    @Options(useCache = false)
+    List<ArticleContentPO> selectBatchIdsUncached(@Param("articleIds") Collection<Long> articleIds);
+}
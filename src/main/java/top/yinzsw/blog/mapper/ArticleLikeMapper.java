@@ -0,0 +1,44 @@
+package top.yinzsw.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import top.yinzsw.blog.model.po.ArticleLikePO;
+
+import java.util.Collection;
+
+/**
+ * @author yinzsW
+ * @description 针对表【article_like(文章点赞表)】的数据库操作Mapper
+ * @createDate 2023-02-12 10:21:37
+ * @Entity top.yinzsw.blog.model.po.ArticleLikePO
+ */
+@CacheNamespace(readWrite = false, blocking = true)
+public interface ArticleLikeMapper extends BaseMapper<ArticleLikePO> {
+
+    /**
+     * 批量保存点赞记录, 已存在的记录忽略
+     *
+     * @param articleLikes 点赞记录
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO article_like (user_id, article_id) VALUES " +
+            "<foreach collection='articleLikes' item='like' separator=','>(#{like.userId}, #{like.articleId})</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("articleLikes") Collection<ArticleLikePO> articleLikes);
+
+    /**
+     * 批量删除点赞记录
+     *
+     * @param articleLikes 点赞记录
+     * @return 影响行数
+     */
+    @Delete("<script>" +
+            "DELETE FROM article_like WHERE (user_id, article_id) IN " +
+            "<foreach collection='articleLikes' item='like' open='(' separator=',' close=')'>(#{like.userId}, #{like.articleId})</foreach>" +
+            "</script>")
+    int deleteBatch(@Param("articleLikes") Collection<ArticleLikePO> articleLikes);
+}
@@ -1,9 +1,24 @@
 package top.yinzsw.blog.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import top.yinzsw.blog.extension.mybatisplus.CompressedStringTypeHandler;
 import top.yinzsw.blog.model.po.ArticlePO;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author yinzsW
  * @description 针对表【article(文章表)】的数据库操作Mapper
@@ -13,8 +28,60 @@ import top.yinzsw.blog.model.po.ArticlePO;
 @CacheNamespace(readWrite = false, blocking = true)
 public interface ArticleMapper extends BaseMapper<ArticlePO> {
 
-}
-
+    /**
+     * 批量累加文章浏览量, 浏览量不参与查询缓存, 因此不刷新二级缓存
+     *
+     * @param viewsDeltaMap 文章id->浏览量增量
+     * @return 影响行数
+     */
+    @Update("<script>" +
+            "UPDATE article SET views_count = views_count + CASE id " +
+            "<foreach collection='viewsDeltaMap' index='articleId' item='delta'>WHEN #{articleId} THEN #{delta} </foreach>" +
+            "ELSE 0 END WHERE id IN " +
+            "<foreach collection='viewsDeltaMap' index='articleId' open='(' separator=',' close=')'>#{articleId}</foreach>" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.FALSE)
+    int incrementViewsCount(@Param("viewsDeltaMap") Map<Long, Long> viewsDeltaMap);
 
+    /**
+     * 批量设置文章发表时间, 发表时间默认由数据库生成, 导入文章时保留原发表时间
+     *
+     * @param createTimeMap 文章id->发表时间
+     * @return 影响行数
+     */
+    @Update("<script>" +
+            "UPDATE article SET create_time = CASE id " +
+            "<foreach collection='createTimeMap' index='articleId' item='createTime'>WHEN #{articleId} THEN #{createTime} </foreach>" +
+            "ELSE create_time END WHERE id IN " +
+            "<foreach collection='createTimeMap' index='articleId' open='(' separator=',' close=')'>#{articleId}</foreach>" +
+            "</script>")
+    int updateCreateTimeBatch(@Param("createTimeMap") Map<Long, LocalDateTime> createTimeMap);
 
+    /**
+     * 以流式游标逐行读取所有未删除的文章, 按id升序
+     * <p>
+     * 游标需要在事务内使用, 遍历期间独占数据库连接, 不能在同一连接上执行其他查询
+     * </p>
+     *
+     * @return 文章游标
+     */
+    @Select("SELECT a.id, a.category_id, a.article_cover, a.article_title, c.article_content, a.article_status, a.article_type, " +
+            "a.original_url, a.is_top, a.create_time FROM article a LEFT JOIN article_content c ON c.article_id = a.id " +
+            "WHERE a.is_deleted = 0 ORDER BY a.id")
+    @Results(@Result(column = "article_content", property = "articleContent", typeHandler = CompressedStringTypeHandler.class))
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE, useCache = false)
+    Cursor<ArticlePO> cursorArticles();
 
+    /**
+     * 按条件查询文章, 不读写二级缓存, 二级缓存只在本节点写入时刷新, 其他节点写入后可能读到旧数据
+     * <p>
+     * 查询条件需要指定查询字段
+     * </p>
+     *
+     * @param queryWrapper 查询条件
+     * @return 文章列表
+     */
+    @Select("SELECT ${ew.sqlSelect} FROM article ${ew.customSqlSegment}")
+    @Options(useCache = false)
+    List<ArticlePO> selectListUncached(@Param(Constants.WRAPPER) Wrapper<ArticlePO> queryWrapper);
+}
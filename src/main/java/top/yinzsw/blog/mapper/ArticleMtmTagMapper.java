@@ -2,8 +2,15 @@ package top.yinzsw.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import top.yinzsw.blog.model.po.ArticleMtmTagPO;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * @author yinzsW
  * @description 针对表【article_mtm_tag(文章与标签映射表(多对多))】的数据库操作Mapper
@@ -14,4 +21,24 @@ import top.yinzsw.blog.model.po.ArticleMtmTagPO;
 @CacheNamespace(readWrite = false, blocking = true)
 public interface ArticleMtmTagMapper extends BaseMapper<ArticleMtmTagPO> {
 
+    /**
+     * 以一条多行插入语句批量保存文章与标签映射
+     *
+     * @param articleMtmTagPOList 文章与标签映射
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO article_mtm_tag (article_id, tag_id) VALUES " +
+            "<foreach collection='articleMtmTags' item='mtm' separator=','>(#{mtm.articleId}, #{mtm.tagId})</foreach>" +
+            "</script>")
+    int insertBatch(@Param("articleMtmTags") Collection<ArticleMtmTagPO> articleMtmTagPOList);
+
+    /**
+     * 查询所有文章与标签映射, 不读写二级缓存, 二级缓存只在本节点写入时刷新, 其他节点写入后可能读到旧数据
+     *
+     * @return 文章与标签映射
+     */
+    @Select("SELECT article_id, tag_id FROM article_mtm_tag")
+    @Options(useCache = false)
+    List<ArticleMtmTagPO> listAllUncached();
 }
\ No newline at end of file
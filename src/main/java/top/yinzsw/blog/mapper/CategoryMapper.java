@@ -2,8 +2,12 @@ package top.yinzsw.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
 import top.yinzsw.blog.model.po.CategoryPO;
 
+import java.util.List;
+
 /**
  * @author yinzsW
  * @description 针对表【category(文章分类表)】的数据库操作Mapper
@@ -14,4 +18,12 @@ import top.yinzsw.blog.model.po.CategoryPO;
 @CacheNamespace(readWrite = false, blocking = true)
 public interface CategoryMapper extends BaseMapper<CategoryPO> {
 
+    /**
+     * 查询所有分类的id与分类名, 不读写二级缓存, 二级缓存只在本节点写入时刷新, 其他节点写入后可能读到旧数据
+     *
+     * @return 分类列表
+     */
+    @Select("SELECT id, category_name FROM category")
+    @Options(useCache = false)
+    List<CategoryPO> listCategoryNamesUncached();
 }
\ No newline at end of file
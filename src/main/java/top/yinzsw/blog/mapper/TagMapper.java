@@ -2,8 +2,12 @@ package top.yinzsw.blog.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
 import top.yinzsw.blog.model.po.TagPO;
 
+import java.util.List;
+
 /**
  * @author yinzsW
  * @description 针对表【tag(标签表)】的数据库操作Mapper
@@ -13,6 +17,14 @@ import top.yinzsw.blog.model.po.TagPO;
 @CacheNamespace(readWrite = false, blocking = true)
 public interface TagMapper extends BaseMapper<TagPO> {
 
+    /**
+     * 查询所有标签的id与标签名, 不读写二级缓存, 二级缓存只在本节点写入时刷新, 其他节点写入后可能读到旧数据
+     *
+     * @return 标签列表
+     */
+    @Select("SELECT id, tag_name FROM tag")
+    @Options(useCache = false)
+    List<TagPO> listTagNamesUncached();
 }
 
 
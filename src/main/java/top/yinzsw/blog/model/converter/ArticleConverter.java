@@ -3,10 +3,12 @@ package top.yinzsw.blog.model.converter;
 import org.mapstruct.*;
 import top.yinzsw.blog.model.dto.ArticleHotIndexDTO;
 import top.yinzsw.blog.model.dto.ArticleMapsDTO;
+import top.yinzsw.blog.model.dto.ArticleSearchHitDTO;
 import top.yinzsw.blog.model.po.ArticlePO;
 import top.yinzsw.blog.model.po.TagPO;
 import top.yinzsw.blog.model.request.ArticleReq;
 import top.yinzsw.blog.model.vo.*;
+import top.yinzsw.blog.util.MarkdownUtils;
 
 import java.util.List;
 
@@ -19,7 +21,7 @@ import java.util.List;
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface ArticleConverter {
 
-    List<ArticleSearchVO> toArticleSearchVO(List<ArticlePO> articlePOList);
+    List<ArticleSearchVO> toArticleSearchVO(List<ArticleSearchHitDTO> articleSearchHitDTOList);
 
     List<ArticleArchiveVO> toArticleArchiveVO(List<ArticlePO> articlePOList);
 
@@ -38,6 +40,10 @@ public interface ArticleConverter {
     List<ArticleDigestBackgroundVO> toArticleDigestBackgroundVO(List<ArticlePO> articlePOList, @Context ArticleMapsDTO articleMapsDTO);
 
     ArticlePO toArticlePO(ArticleReq articleReq, Long userId, Long categoryId);
+
+    default List<ArticleTocVO> toArticleTocVO(String articleToc) {
+        return MarkdownUtils.parseToc(articleToc);
+    }
     ///////////////////////////////////Context//////////////////////////////////////////////
 
     List<TagVO> toTagVO(List<TagPO> tagPOList);
@@ -52,7 +58,7 @@ public interface ArticleConverter {
 
         String categoryName = articleMapsDTO.getCategoryNameMap().get(categoryId);
         List<TagVO> tags = toTagVO(articleMapsDTO.getTagsMap().get(articleId));
-        ArticleHotIndexDTO articleHotIndexDTO = articleMapsDTO.getHotIndexMap().get(articleId);
+        ArticleHotIndexDTO articleHotIndexDTO = articleMapsDTO.getHotIndexMap().getOrDefault(articleId, new ArticleHotIndexDTO(0L, 0L));
 
         if (targetType.isAssignableFrom(ArticleVO.class)) {
             return (T) new ArticleVO().setCategoryName(categoryName).setTags(tags)
@@ -0,0 +1,39 @@
+package top.yinzsw.blog.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 文章内容概要, 在写入文章时预先计算
+ *
+ * @author yinzsW
+ * @since 23/02/09
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticleContentSummaryDTO {
+
+    /**
+     * 纯文本摘要
+     */
+    private String articleContentDigest;
+
+    /**
+     * 字数, 中文按字计数, 其他语言按词计数
+     */
+    private Integer wordCount;
+
+    /**
+     * 预计阅读时长(分钟)
+     */
+    private Integer readingTime;
+
+    /**
+     * 文章目录(JSON)
+     */
+    private String articleToc;
+}
@@ -0,0 +1,36 @@
+package top.yinzsw.blog.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章游标, 即上一页最后一条记录的排序键
+ *
+ * @author yinzsW
+ * @since 23/02/04
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticleCursorDTO {
+
+    /**
+     * 是否置顶
+     */
+    private Boolean isTop;
+
+    /**
+     * 发表时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 文章id
+     */
+    private Long id;
+}
@@ -0,0 +1,42 @@
+package top.yinzsw.blog.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import top.yinzsw.blog.model.request.ArticleReq;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待导入的文章
+ *
+ * @author yinzsW
+ * @since 23/02/16
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticleImportDTO {
+
+    /**
+     * 文件名
+     */
+    private String fileName;
+
+    /**
+     * 文章, 解析失败时为 {@code null}
+     */
+    private ArticleReq articleReq;
+
+    /**
+     * 文章内容概要
+     */
+    private ArticleContentSummaryDTO articleContentSummaryDTO;
+
+    /**
+     * 发表时间, 未设置时为 {@code null}, 以导入时间为准
+     */
+    private LocalDateTime createTime;
+}
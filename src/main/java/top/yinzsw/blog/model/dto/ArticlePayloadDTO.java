@@ -0,0 +1,34 @@
+package top.yinzsw.blog.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 预渲染的文章详情响应
+ *
+ * @author yinzsW
+ * @since 23/02/15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticlePayloadDTO {
+
+    /**
+     * 内容版本, 由文章id与相关数据表版本组成
+     */
+    private String version;
+
+    /**
+     * 完整响应体(JSON)
+     */
+    private byte[] jsonBytes;
+
+    /**
+     * gzip 压缩后的完整响应体
+     */
+    private byte[] gzipBytes;
+}
@@ -0,0 +1,39 @@
+package top.yinzsw.blog.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 文章搜索命中结果
+ *
+ * @author yinzsW
+ * @since 23/02/08
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticleSearchHitDTO {
+
+    /**
+     * 文章id
+     */
+    private Long id;
+
+    /**
+     * 文章标题
+     */
+    private String articleTitle;
+
+    /**
+     * 高亮后的文章标题
+     */
+    private String articleTitleHighlight;
+
+    /**
+     * 命中位置附近的文章内容片段(已高亮)
+     */
+    private String articleContentDigest;
+}
@@ -0,0 +1,40 @@
+package top.yinzsw.blog.model.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import top.yinzsw.blog.extension.mybatisplus.CompressedStringTypeHandler;
+
+import java.io.Serializable;
+
+/**
+ * 文章内容表(与文章表一对一)
+ *
+ * @TableName article_content
+ */
+@TableName(value = "article_content", autoResultMap = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticleContentPO implements Serializable {
+    /**
+     * 文章id
+     */
+    @TableId(type = IdType.INPUT)
+    private Long articleId;
+
+    /**
+     * 文章内容, 超过阈值时压缩存储
+     */
+    @TableField(typeHandler = CompressedStringTypeHandler.class)
+    private String articleContent;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,43 @@
+package top.yinzsw.blog.model.po;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 文章点赞表
+ *
+ * @TableName article_like
+ */
+@TableName(value = "article_like")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ArticleLikePO implements Serializable {
+    /**
+     * 用户id
+     */
+    private Long userId;
+
+    /**
+     * 文章id
+     */
+    private Long articleId;
+
+    /**
+     * 点赞时间
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime createTime;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
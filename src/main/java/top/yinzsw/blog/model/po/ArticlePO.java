@@ -49,8 +49,9 @@ public class ArticlePO implements Serializable {
     private String articleTitle;
 
     /**
-     * 文章内容
+     * 文章内容, 单独存储于文章内容表, 需要时由文章内容表填充
      */
+    @TableField(exist = false)
     private String articleContent;
 
     /**
@@ -68,6 +69,12 @@ public class ArticlePO implements Serializable {
      */
     private String originalUrl;
 
+    /**
+     * 浏览量, 由浏览量计数器定期写回
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long viewsCount;
+
     /**
      * 是否置顶 0否 1是
      */
@@ -91,22 +98,30 @@ public class ArticlePO implements Serializable {
     private LocalDateTime updateTime;
 
     /**
-     * 文章内容摘要
+     * 文章内容摘要(纯文本)
      */
-    @TableField(value = "SUBSTR(article_content, 1, 256)", select = false, insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private String articleContentDigest;
 
     /**
-     * 文章数量 GroupBy categoryId
+     * 字数
      */
-    @TableField(value = "COUNT(id)", select = false, insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
-    private Long articleCount;
+    private Integer wordCount;
 
     /**
-     * FULL_TEXT_MATCH_SQL
+     * 预计阅读时长(分钟)
      */
-    @TableField(exist = false)
-    public static final String FULL_MATCH = "MATCH(article_title, article_content) AGAINST({0} IN BOOLEAN MODE)";
+    private Integer readingTime;
+
+    /**
+     * 文章目录(JSON)
+     */
+    private String articleToc;
+
+    /**
+     * 文章数量 GroupBy categoryId
+     */
+    @TableField(value = "COUNT(id)", select = false, insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long articleCount;
 
     @TableField(exist = false)
     private static final long serialVersionUID = 1L;
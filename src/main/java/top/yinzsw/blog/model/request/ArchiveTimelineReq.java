@@ -0,0 +1,39 @@
+package top.yinzsw.blog.model.request;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.YearMonth;
+
+/**
+ * 归档时间线查询模型
+ *
+ * @author yinzsW
+ * @since 23/02/06
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@ParameterObject
+public class ArchiveTimelineReq {
+
+    /**
+     * 起始年月(包含)
+     */
+    @DateTimeFormat(pattern = "yyyy-MM")
+    @Parameter(description = "起始年月(yyyy-MM, 包含), 为空时不限制")
+    private YearMonth from;
+
+    /**
+     * 截止年月(包含)
+     */
+    @DateTimeFormat(pattern = "yyyy-MM")
+    @Parameter(description = "截止年月(yyyy-MM, 包含), 为空时不限制")
+    private YearMonth to;
+}
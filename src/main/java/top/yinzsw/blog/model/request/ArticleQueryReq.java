@@ -58,4 +58,10 @@ public class ArticleQueryReq {
      */
     @Parameter(description = "是否删除")
     private Boolean isDeleted;
+
+    /**
+     * 是否使用近似总数
+     */
+    @Parameter(description = "是否使用近似总数(最多统计1000条, 适用于数据量大的筛选)")
+    private Boolean approximateCount;
 }
@@ -36,6 +36,7 @@ public class ArticleReq {
      * 文章标题
      */
     @NotBlank(message = "文章标题不能为空")
+    @Length(max = 50, message = "文章标题长度不能超过{max}")
     @Parameter(description = "文章标题")
     private String articleTitle;
 
@@ -49,6 +50,7 @@ public class ArticleReq {
     /**
      * 文章缩略图
      */
+    @Length(max = 1024, message = "文章缩略图链接长度不能超过{max}")
     @Parameter(description = "文章缩略图")
     private String articleCover;
 
@@ -68,7 +70,7 @@ public class ArticleReq {
      * 文章分类名
      */
     @NotBlank(message = "文章分类不可为空")
-    @Length(min = 2, message = "分类名长度不能小于{min}")
+    @Length(min = 2, max = 20, message = "分类名长度需在{min}到{max}之间")
     @Parameter(description = "文章分类名")
     private String categoryName;
 
@@ -77,11 +79,12 @@ public class ArticleReq {
      */
     @NotEmpty(message = "文章标签不可为空")
     @Parameter(description = "文章标签名")
-    private List<String> tagNames;
+    private List<@NotBlank(message = "标签名不能为空") @Length(min = 2, max = 20, message = "标签名长度需在{min}到{max}之间") String> tagNames;
 
     /**
      * 原文链接
      */
+    @Length(max = 255, message = "原文链接长度不能超过{max}")
     @Parameter(description = "原文链接")
     private String originalUrl;
 
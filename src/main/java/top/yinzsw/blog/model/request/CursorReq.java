@@ -0,0 +1,41 @@
+package top.yinzsw.blog.model.request;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.springdoc.api.annotations.ParameterObject;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * 游标分页模型
+ *
+ * @author yinzsW
+ * @since 23/02/04
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@ParameterObject
+public class CursorReq {
+
+    /**
+     * 游标, 为空时查询第一页
+     */
+    @Parameter(description = "游标(上一页返回的nextCursor)")
+    private String cursor;
+
+    /**
+     * 条数
+     */
+    @Min(value = 1, message = "条数不能少于 {min}")
+    @Max(value = 30, message = "条数不能多于 {max}")
+    @Schema(defaultValue = "10")
+    @Parameter(description = "条数")
+    private Long size = 10L;
+}
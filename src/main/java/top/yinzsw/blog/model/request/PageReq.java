@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 import org.springdoc.api.annotations.ParameterObject;
+import top.yinzsw.blog.extension.mybatisplus.ApproximatePage;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
@@ -45,4 +46,8 @@ public class PageReq {
     public <T> Page<T> getPager() {
         return new Page<>((page - 1) * size, size);
     }
+
+    public <T> Page<T> getApproximatePager() {
+        return new ApproximatePage<>((page - 1) * size, size, ApproximatePage.DEFAULT_COUNT_LIMIT);
+    }
 }
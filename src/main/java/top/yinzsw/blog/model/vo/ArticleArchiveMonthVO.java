@@ -0,0 +1,41 @@
+package top.yinzsw.blog.model.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 月度文章归档
+ *
+ * @author yinzsW
+ * @since 23/02/06
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "月度文章归档")
+public class ArticleArchiveMonthVO {
+
+    /**
+     * 年月(yyyy-MM)
+     */
+    @Schema(title = "年月(yyyy-MM)")
+    private String yearMonth;
+
+    /**
+     * 文章数量
+     */
+    @Schema(title = "文章数量")
+    private Integer articleCount;
+
+    /**
+     * 文章归档列表
+     */
+    @Schema(title = "文章归档列表")
+    private List<ArticleArchiveVO> articles;
+}
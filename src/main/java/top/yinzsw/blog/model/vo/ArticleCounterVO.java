@@ -0,0 +1,33 @@
+package top.yinzsw.blog.model.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 文章计数信息
+ *
+ * @author yinzsW
+ * @since 23/02/15
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "文章计数信息")
+public class ArticleCounterVO {
+
+    /**
+     * 文章点赞量
+     */
+    @Schema(title = "文章点赞量")
+    private Long likeCount;
+
+    /**
+     * 文章浏览量
+     */
+    @Schema(title = "文章浏览量")
+    private Long viewsCount;
+}
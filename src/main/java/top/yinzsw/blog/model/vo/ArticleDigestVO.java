@@ -53,6 +53,18 @@ public class ArticleDigestVO {
     @Schema(title = "文章内容")
     private String articleContentDigest;
 
+    /**
+     * 字数
+     */
+    @Schema(title = "字数")
+    private Integer wordCount;
+
+    /**
+     * 预计阅读时长(分钟)
+     */
+    @Schema(title = "预计阅读时长(分钟)")
+    private Integer readingTime;
+
     /**
      * 文章缩略图
      */
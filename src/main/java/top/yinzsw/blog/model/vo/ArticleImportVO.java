@@ -0,0 +1,41 @@
+package top.yinzsw.blog.model.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 文章导入结果
+ *
+ * @author yinzsW
+ * @since 23/02/16
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "文章导入结果")
+public class ArticleImportVO {
+
+    /**
+     * 导入成功的文章数
+     */
+    @Schema(title = "导入成功的文章数")
+    private Integer importedCount;
+
+    /**
+     * 跳过的文件数
+     */
+    @Schema(title = "跳过的文件数")
+    private Integer skippedCount;
+
+    /**
+     * 跳过的文件名(最多返回前100个)
+     */
+    @Schema(title = "跳过的文件名")
+    private List<String> skippedFileNames;
+}
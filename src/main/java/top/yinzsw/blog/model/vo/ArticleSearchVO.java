@@ -32,7 +32,13 @@ public class ArticleSearchVO {
     private String articleTitle;
 
     /**
-     * 文章内容摘要
+     * 高亮后的文章标题
+     */
+    @Schema(title = "高亮后的文章标题")
+    private String articleTitleHighlight;
+
+    /**
+     * 文章内容摘要(命中位置附近的片段, 关键词以mark标签高亮)
      */
     @Schema(title = "文章内容摘要")
     private String articleContentDigest;
@@ -0,0 +1,39 @@
+package top.yinzsw.blog.model.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 文章目录项
+ *
+ * @author yinzsW
+ * @since 23/02/09
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "文章目录项")
+public class ArticleTocVO {
+
+    /**
+     * 标题级别(1-6)
+     */
+    @Schema(title = "标题级别")
+    private Integer level;
+
+    /**
+     * 标题
+     */
+    @Schema(title = "标题")
+    private String title;
+
+    /**
+     * 锚点
+     */
+    @Schema(title = "锚点")
+    private String anchor;
+}
@@ -41,6 +41,24 @@ public class ArticleVO {
     @Schema(title = "文章内容")
     private String articleContent;
 
+    /**
+     * 文章目录
+     */
+    @Schema(title = "文章目录")
+    private List<ArticleTocVO> articleToc;
+
+    /**
+     * 字数
+     */
+    @Schema(title = "字数")
+    private Integer wordCount;
+
+    /**
+     * 预计阅读时长(分钟)
+     */
+    @Schema(title = "预计阅读时长(分钟)")
+    private Integer readingTime;
+
     /**
      * 文章缩略图
      */
@@ -48,13 +66,13 @@ public class ArticleVO {
     private String articleCover;
 
     /**
-     * 文章点赞量
+     * 文章点赞量, 详情接口中不返回, 通过计数接口获取
      */
     @Schema(title = "文章点赞量")
     private Long likeCount;
 
     /**
-     * 文章浏览量
+     * 文章浏览量, 详情接口中不返回, 通过计数接口获取
      */
     @Schema(title = "文章浏览量")
     private Long viewsCount;
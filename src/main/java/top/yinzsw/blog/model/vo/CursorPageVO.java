@@ -0,0 +1,41 @@
+package top.yinzsw.blog.model.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 游标分页数据模型
+ *
+ * @author yinzsW
+ * @since 23/02/04
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "游标分页数据")
+public class CursorPageVO<T> {
+
+    /**
+     * 分页列表
+     */
+    @Schema(title = "记录列表")
+    private List<T> records;
+
+    /**
+     * 下一页游标
+     */
+    @Schema(title = "下一页游标")
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    @Schema(title = "是否还有下一页")
+    private Boolean hasMore;
+}
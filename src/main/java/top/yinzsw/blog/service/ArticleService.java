@@ -2,13 +2,19 @@ package top.yinzsw.blog.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import top.yinzsw.blog.enums.TagMatchEnum;
+import top.yinzsw.blog.model.dto.ArticlePayloadDTO;
 import top.yinzsw.blog.model.po.ArticlePO;
+import top.yinzsw.blog.model.request.ArchiveTimelineReq;
 import top.yinzsw.blog.model.request.ArticleQueryReq;
 import top.yinzsw.blog.model.request.ArticleReq;
+import top.yinzsw.blog.model.request.CursorReq;
 import top.yinzsw.blog.model.request.PageReq;
 import top.yinzsw.blog.model.vo.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author yinzsW
@@ -34,21 +40,62 @@ public interface ArticleService extends IService<ArticlePO> {
     PageVO<ArticleArchiveVO> pageArchivesArticles(PageReq pageReq);
 
     /**
-     * 查看首页文章
+     * 游标分页查询文章归档列表
+     *
+     * @param cursorReq 游标分页信息
+     * @return 文章归档列表
+     */
+    CursorPageVO<ArticleArchiveVO> cursorArchivesArticles(CursorReq cursorReq);
+
+    /**
+     * 查询月度归档时间线
+     *
+     * @param archiveTimelineReq 年月范围
+     * @return 月度归档列表
+     */
+    List<ArticleArchiveMonthVO> listArchiveTimeline(ArchiveTimelineReq archiveTimelineReq);
+
+    /**
+     * 查询当前最热的文章(浏览, 点赞与发布时间按时间衰减后的综合热度)
+     *
+     * @param size 数量
+     * @return 文章大纲列表
+     */
+    List<ArticleOutlineVO> listHotArticles(Integer size);
+
+    /**
+     * 查看首页文章, 返回预渲染的响应, 不包含点赞量与浏览量
      *
      * @param articleId 文章id
-     * @return 首页文章
+     * @return 预渲染的首页文章响应
      */
-    ArticleVO getArticle(Long articleId);
+    ArticlePayloadDTO getArticlePayload(Long articleId);
+
+    /**
+     * 查看文章点赞量与浏览量
+     *
+     * @param articleId 文章id
+     * @return 文章计数信息
+     */
+    ArticleCounterVO getArticleCounters(Long articleId);
 
     /**
      * 分页查询首页文章
      *
      * @param pageReq 分页信息
      * @param isTop   是否置顶
-     * @return 首页文章列表
+     * @return 首页文章列表, 映射分类与标签时不阻塞调用线程
      */
-    PageVO<ArticleDigestVO> pageArticles(PageReq pageReq, Boolean isTop);
+    CompletableFuture<PageVO<ArticleDigestVO>> pageArticles(PageReq pageReq, Boolean isTop);
+
+    /**
+     * 游标分页查询首页文章
+     *
+     * @param cursorReq 游标分页信息
+     * @param isTop     是否置顶
+     * @return 首页文章列表, 映射分类与标签时不阻塞调用线程
+     */
+    CompletableFuture<CursorPageVO<ArticleDigestVO>> cursorArticles(CursorReq cursorReq, Boolean isTop);
 
     /**
      * 根据分类id查看文章预览
@@ -59,14 +106,34 @@ public interface ArticleService extends IService<ArticlePO> {
      */
     PageVO<ArticlePreviewVO> pagePreviewArticles(PageReq pageReq, Long categoryId);
 
+    /**
+     * 根据分类id游标分页查看文章预览
+     *
+     * @param cursorReq  游标分页信息
+     * @param categoryId 分类id
+     * @return 文章预览信息
+     */
+    CursorPageVO<ArticlePreviewVO> cursorPreviewArticles(CursorReq cursorReq, Long categoryId);
+
     /**
      * 根据标签id查看文章预览
      *
-     * @param pageReq 分页信息
-     * @param tagIds  标签id列表
+     * @param pageReq  分页信息
+     * @param tagIds   标签id列表
+     * @param tagMatch 标签匹配方式
      * @return 文章预览信息
      */
-    PageVO<ArticlePreviewVO> pagePreviewArticles(PageReq pageReq, List<Long> tagIds);
+    PageVO<ArticlePreviewVO> pagePreviewArticles(PageReq pageReq, List<Long> tagIds, TagMatchEnum tagMatch);
+
+    /**
+     * 根据标签id游标分页查看文章预览, 按文章id倒序
+     *
+     * @param cursorReq 游标分页信息
+     * @param tagIds    标签id列表
+     * @param tagMatch  标签匹配方式
+     * @return 文章预览信息
+     */
+    CursorPageVO<ArticlePreviewVO> cursorPreviewArticles(CursorReq cursorReq, List<Long> tagIds, TagMatchEnum tagMatch);
 
     /**
      * 查看后台文章
@@ -81,9 +148,9 @@ public interface ArticleService extends IService<ArticlePO> {
      *
      * @param pageReq         分页信息
      * @param articleQueryReq 文章查询信息
-     * @return 后台文章列表
+     * @return 后台文章列表, 映射分类, 标签与热度时不阻塞调用线程
      */
-    PageVO<ArticleDigestBackgroundVO> pageBackgroundArticles(PageReq pageReq, ArticleQueryReq articleQueryReq);
+    CompletableFuture<PageVO<ArticleDigestBackgroundVO>> pageBackgroundArticles(PageReq pageReq, ArticleQueryReq articleQueryReq);
 
     /**
      * 上传文章图片
@@ -93,6 +160,21 @@ public interface ArticleService extends IService<ArticlePO> {
      */
     String uploadFileArticleImage(MultipartFile image);
 
+    /**
+     * 从 zip 压缩包批量导入文章, 每个 .md 文件为一篇文章
+     *
+     * @param archive 文章压缩包
+     * @return 导入结果
+     */
+    ArticleImportVO importArticles(MultipartFile archive);
+
+    /**
+     * 以 zip 压缩包流式导出所有未删除的文章
+     *
+     * @return 响应发送器
+     */
+    ResponseBodyEmitter exportArticles();
+
     /**
      * 文章点赞或取消点赞
      *
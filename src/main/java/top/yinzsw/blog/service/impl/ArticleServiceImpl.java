@@ -1,41 +1,80 @@
 package top.yinzsw.blog.service.impl;
 
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import top.yinzsw.blog.core.context.HttpContext;
+import top.yinzsw.blog.core.counter.ArticleHotCounter;
+import top.yinzsw.blog.core.event.ArticleChangeEvent;
+import top.yinzsw.blog.core.index.ArticleOutlineIndex;
+import top.yinzsw.blog.core.index.ArticleTagIndex;
 import top.yinzsw.blog.core.maps.MappingFactory;
+import top.yinzsw.blog.core.search.ArticleSearchEngine;
 import top.yinzsw.blog.core.upload.UploadProvider;
 import top.yinzsw.blog.enums.ArticleStatusEnum;
 import top.yinzsw.blog.enums.FilePathEnum;
+import top.yinzsw.blog.enums.TagMatchEnum;
 import top.yinzsw.blog.exception.BizException;
+import top.yinzsw.blog.exception.EmptyPageException;
+import top.yinzsw.blog.extension.web.ResponseBodyEmitterOutputStream;
 import top.yinzsw.blog.manager.ArticleManager;
-import top.yinzsw.blog.manager.UserManager;
 import top.yinzsw.blog.manager.WebConfigManager;
 import top.yinzsw.blog.mapper.ArticleMapper;
 import top.yinzsw.blog.model.converter.ArticleConverter;
+import top.yinzsw.blog.model.dto.ArticleContentSummaryDTO;
+import top.yinzsw.blog.model.dto.ArticleCursorDTO;
+import top.yinzsw.blog.model.dto.ArticleHotIndexDTO;
+import top.yinzsw.blog.model.dto.ArticleImportDTO;
+import top.yinzsw.blog.model.dto.ArticlePayloadDTO;
+import top.yinzsw.blog.model.dto.ArticleSearchHitDTO;
 import top.yinzsw.blog.model.po.ArticlePO;
 import top.yinzsw.blog.model.po.CategoryPO;
+import top.yinzsw.blog.model.po.TagPO;
 import top.yinzsw.blog.model.po.WebsiteConfigPO;
+import top.yinzsw.blog.model.request.ArchiveTimelineReq;
 import top.yinzsw.blog.model.request.ArticleQueryReq;
 import top.yinzsw.blog.model.request.ArticleReq;
+import top.yinzsw.blog.model.request.CursorReq;
 import top.yinzsw.blog.model.request.PageReq;
 import top.yinzsw.blog.model.vo.*;
 import top.yinzsw.blog.service.ArticleService;
+import top.yinzsw.blog.util.CursorUtils;
+import top.yinzsw.blog.util.MarkdownUtils;
 import top.yinzsw.blog.util.VerifyUtils;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * @author yinzsW
@@ -46,24 +85,60 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> implements ArticleService {
+    /**
+     * 后台关键词搜索最多匹配的文章数
+     */
+    private static final int BACKGROUND_SEARCH_LIMIT = 1000;
+
+    /**
+     * 导入时每批写入的文章数
+     */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    /**
+     * 导入时每批最多缓存的文件字节数, 与批次文章数共同限制内存占用
+     */
+    private static final long IMPORT_BATCH_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * 导入时单个文件的最大字节数, 超出的文件跳过
+     */
+    private static final int IMPORT_FILE_MAX_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * 导入结果中最多返回的跳过文件名数
+     */
+    private static final int IMPORT_SKIPPED_NAMES_LIMIT = 100;
+
+    /**
+     * 导出的超时时间, 只作用于导出请求, 其他异步请求使用默认超时时间
+     */
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * 导出的响应类型
+     */
+    private static final MediaType EXPORT_MEDIA_TYPE = MediaType.parseMediaType("application/zip");
+
     private final HttpContext httpContext;
-    private final UserManager userManager;
     private final MappingFactory mappingFactory;
     private final UploadProvider uploadProvider;
     private final ArticleManager articleManager;
     private final WebConfigManager webConfigManager;
     private final ArticleConverter articleConverter;
+    private final ArticleOutlineIndex articleOutlineIndex;
+    private final ArticleTagIndex articleTagIndex;
+    private final ArticleHotCounter articleHotCounter;
+    private final ArticleSearchEngine articleSearchEngine;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final Validator validator;
 
     @Override
     public List<ArticleSearchVO> listSearchArticles(String keywords) {
-        List<ArticlePO> articlePOList = lambdaQuery()
-                .select(ArticlePO::getId, ArticlePO::getArticleTitle, ArticlePO::getArticleStatus, ArticlePO::getArticleContentDigest)
-                .eq(ArticlePO::getIsDeleted, false)
-                .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
-                .and(StringUtils.hasText(keywords), q -> q.apply(ArticlePO.FULL_MATCH, keywords))
-                .last("LIMIT 30")
-                .list();
-        return articleConverter.toArticleSearchVO(articlePOList);
+        List<ArticleSearchHitDTO> articleSearchHitDTOList = articleSearchEngine.searchWithHighlights(keywords, true, 30);
+        return articleConverter.toArticleSearchVO(articleSearchHitDTOList);
     }
 
     @Override
@@ -82,52 +157,54 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
     }
 
     @Override
-    public ArticleVO getArticle(Long articleId) {
-        ArticlePO articlePO = getById(articleId);
-
-        ArticleVO articleVO = mappingFactory.getArticleMapping(List.of(articlePO))
-                .mapCategory().mapTags().mapHotIndex(articleManager::getHotIndex).parallelRun()
-                .mappingOne(articleConverter::toArticleVO);
-
-        //复用查询包装器
-        LambdaQueryChainWrapper<ArticlePO> commonLambdaQuery = lambdaQuery()
-                .select(ArticlePO::getId, ArticlePO::getArticleTitle,
-                        ArticlePO::getArticleCover, ArticlePO::getCreateTime)
+    public CursorPageVO<ArticleArchiveVO> cursorArchivesArticles(CursorReq cursorReq) {
+        LambdaQueryChainWrapper<ArticlePO> queryWrapper = lambdaQuery()
+                .select(ArticlePO::getId, ArticlePO::getArticleTitle, ArticlePO::getIsTop, ArticlePO::getCreateTime)
                 .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
                 .eq(ArticlePO::getIsDeleted, false);
+        CursorPageVO<ArticlePO> articlePOPage = seekArticles(queryWrapper, cursorReq);
 
-        // 查询上一篇和下一篇文章
-        ArticlePO prevArticlePO = commonLambdaQuery.gt(ArticlePO::getId, articleId).orderByAsc(ArticlePO::getId).last("LIMIT 1").one();
-        ArticlePO nextArticlePO = commonLambdaQuery.lt(ArticlePO::getId, articleId).orderByDesc(ArticlePO::getId).last("LIMIT 1").one();
-        ArticleOutlineVO prevArticleOutlineVO = articleConverter.toArticleOutlineVO(prevArticlePO);
-        ArticleOutlineVO nextArticleOutlineVO = articleConverter.toArticleOutlineVO(nextArticlePO);
-        articleVO.setPrevArticle(prevArticleOutlineVO).setNextArticle(nextArticleOutlineVO);
-
-        //查询最新文章
-        List<ArticlePO> newestArticlesOf5 = commonLambdaQuery.orderByDesc(ArticlePO::getId).last("LIMIT 5").list();
-        List<ArticleOutlineVO> newestRecommendVOList = articleConverter.toArticleOutlineVO(newestArticlesOf5);
-        articleVO.setNewestRecommendArticles(newestRecommendVOList);
-
-        //查询相关文章
-        List<Long> relatedArticleIds = articleManager.listRelatedArticleIds(articleId);
-        if (!CollectionUtils.isEmpty(relatedArticleIds)) {
-            List<ArticlePO> relatedArticlesOf6 = commonLambdaQuery.in(ArticlePO::getId, relatedArticleIds)
-                    .orderByDesc(ArticlePO::getId).last("LIMIT 6").list();
-            List<ArticleOutlineVO> relatedRecommendVOList = articleConverter.toArticleOutlineVO(relatedArticlesOf6);
-            articleVO.setRelatedRecommendArticles(relatedRecommendVOList);
+        List<ArticleArchiveVO> articleArchiveVOS = articleConverter.toArticleArchiveVO(articlePOPage.getRecords());
+        return new CursorPageVO<>(articleArchiveVOS, articlePOPage.getNextCursor(), articlePOPage.getHasMore());
+    }
+
+    @Override
+    public List<ArticleArchiveMonthVO> listArchiveTimeline(ArchiveTimelineReq archiveTimelineReq) {
+        YearMonth from = archiveTimelineReq.getFrom();
+        YearMonth to = archiveTimelineReq.getTo();
+        if (Objects.nonNull(from) && Objects.nonNull(to) && from.isAfter(to)) {
+            throw new BizException("起始年月不能晚于截止年月");
         }
+        return articleOutlineIndex.listArchiveMonths(from, to);
+    }
+
+    @Override
+    public List<ArticleOutlineVO> listHotArticles(Integer size) {
+        return articleOutlineIndex.listArticles(articleHotCounter.listHotArticleIds(size));
+    }
+
+    @Override
+    public ArticlePayloadDTO getArticlePayload(Long articleId) {
+        ArticlePayloadDTO articlePayloadDTO = articleManager.getArticlePayload(articleId, this::getArticle);
+        Optional.ofNullable(articlePayloadDTO).orElseThrow(() -> new BizException(String.format("id为%d的文章不存在", articleId)));
 
         //更新浏览量
         articleManager.updateViewsCount(articleId);
-        return articleVO;
+        return articlePayloadDTO;
+    }
+
+    @Override
+    public ArticleCounterVO getArticleCounters(Long articleId) {
+        ArticleHotIndexDTO articleHotIndexDTO = articleManager.getHotIndex(List.of(articleId)).get(articleId);
+        return new ArticleCounterVO(articleHotIndexDTO.getLikedCount(), articleHotIndexDTO.getViewsCount());
     }
 
     @Override
-    public PageVO<ArticleDigestVO> pageArticles(PageReq pageReq, Boolean isTop) {
+    public CompletableFuture<PageVO<ArticleDigestVO>> pageArticles(PageReq pageReq, Boolean isTop) {
         Page<ArticlePO> articlePOPage = lambdaQuery()
                 .select(ArticlePO::getId, ArticlePO::getCategoryId, ArticlePO::getArticleTitle,
-                        ArticlePO::getArticleContentDigest, ArticlePO::getArticleCover, ArticlePO::getArticleType,
-                        ArticlePO::getIsTop, ArticlePO::getCreateTime)
+                        ArticlePO::getArticleContentDigest, ArticlePO::getWordCount, ArticlePO::getReadingTime,
+                        ArticlePO::getArticleCover, ArticlePO::getArticleType, ArticlePO::getIsTop, ArticlePO::getCreateTime)
                 .eq(ArticlePO::getIsTop, isTop)
                 .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
                 .eq(ArticlePO::getIsDeleted, false)
@@ -136,15 +213,33 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
 
         VerifyUtils.checkIPage(articlePOPage);
 
-        List<ArticleDigestVO> articleDigestVOList = mappingFactory.getArticleMapping(articlePOPage.getRecords())
-                .mapCategory().mapTags().parallelRun()
-                .mappingList(articleConverter::toArticleDigestVO);
-        return new PageVO<>(articleDigestVOList, articlePOPage.getTotal());
+        return mappingFactory.getArticleMapping(articlePOPage.getRecords())
+                .mapCategory().mapTags().asyncRun()
+                .thenApply(handler -> new PageVO<>(handler.mappingList(articleConverter::toArticleDigestVO), articlePOPage.getTotal()));
+    }
+
+    @Override
+    public CompletableFuture<CursorPageVO<ArticleDigestVO>> cursorArticles(CursorReq cursorReq, Boolean isTop) {
+        LambdaQueryChainWrapper<ArticlePO> queryWrapper = lambdaQuery()
+                .select(ArticlePO::getId, ArticlePO::getCategoryId, ArticlePO::getArticleTitle,
+                        ArticlePO::getArticleContentDigest, ArticlePO::getWordCount, ArticlePO::getReadingTime,
+                        ArticlePO::getArticleCover, ArticlePO::getArticleType, ArticlePO::getIsTop, ArticlePO::getCreateTime)
+                .eq(ArticlePO::getIsTop, isTop)
+                .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
+                .eq(ArticlePO::getIsDeleted, false);
+        CursorPageVO<ArticlePO> articlePOPage = seekArticles(queryWrapper, cursorReq);
+
+        return mappingFactory.getArticleMapping(articlePOPage.getRecords())
+                .mapCategory().mapTags().asyncRun()
+                .thenApply(handler -> new CursorPageVO<>(handler.mappingList(articleConverter::toArticleDigestVO),
+                        articlePOPage.getNextCursor(), articlePOPage.getHasMore()));
     }
 
     @Override
     public PageVO<ArticlePreviewVO> pagePreviewArticles(PageReq pageReq, Long categoryId) {
         Page<ArticlePO> articlePOPage = lambdaQuery()
+                .select(ArticlePO::getId, ArticlePO::getCategoryId, ArticlePO::getArticleTitle,
+                        ArticlePO::getArticleCover, ArticlePO::getIsTop, ArticlePO::getCreateTime)
                 .eq(ArticlePO::getCategoryId, categoryId)
                 .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
                 .eq(ArticlePO::getIsDeleted, false)
@@ -160,26 +255,65 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
     }
 
     @Override
-    public PageVO<ArticlePreviewVO> pagePreviewArticles(PageReq pageReq, List<Long> tagIds) {
-        List<Long> articleIds = articleManager.listArticleIds(tagIds);
-        Page<ArticlePO> articlePOPage = lambdaQuery()
+    public CursorPageVO<ArticlePreviewVO> cursorPreviewArticles(CursorReq cursorReq, Long categoryId) {
+        LambdaQueryChainWrapper<ArticlePO> queryWrapper = lambdaQuery()
+                .select(ArticlePO::getId, ArticlePO::getCategoryId, ArticlePO::getArticleTitle,
+                        ArticlePO::getArticleCover, ArticlePO::getIsTop, ArticlePO::getCreateTime)
+                .eq(ArticlePO::getCategoryId, categoryId)
                 .eq(ArticlePO::getArticleStatus, ArticleStatusEnum.PUBLIC)
-                .eq(ArticlePO::getIsDeleted, false)
-                .in(ArticlePO::getId, articleIds)
-                .page(pageReq.getPager());
-
-        VerifyUtils.checkIPage(articlePOPage);
+                .eq(ArticlePO::getIsDeleted, false);
+        CursorPageVO<ArticlePO> articlePOPage = seekArticles(queryWrapper, cursorReq);
 
         List<ArticlePreviewVO> articlePreviewVOList = mappingFactory.getArticleMapping(articlePOPage.getRecords())
                 .mapCategory().mapTags().parallelRun()
                 .mappingList(articleConverter::toArticlePreviewVO);
-        return new PageVO<>(articlePreviewVOList, articlePOPage.getTotal());
+        return new CursorPageVO<>(articlePreviewVOList, articlePOPage.getNextCursor(), articlePOPage.getHasMore());
+    }
+
+    @Override
+    public PageVO<ArticlePreviewVO> pagePreviewArticles(PageReq pageReq, List<Long> tagIds, TagMatchEnum tagMatch) {
+        //在标签位图上完成筛选与分页, 只查询当前页的文章
+        RoaringBitmap articleBitmap = articleTagIndex.matchVisibleArticles(tagIds, tagMatch);
+        long total = articleBitmap.getLongCardinality();
+        List<Long> articleIds = ArticleTagIndex.pageDescending(articleBitmap, (pageReq.getPage() - 1) * pageReq.getSize(), pageReq.getSize());
+        if (articleIds.isEmpty()) {
+            throw new EmptyPageException(total);
+        }
+
+        List<ArticlePreviewVO> articlePreviewVOList = mappingFactory.getArticleMapping(listPreviewArticles(articleIds))
+                .mapCategory().mapTags().parallelRun()
+                .mappingList(articleConverter::toArticlePreviewVO);
+        return new PageVO<>(articlePreviewVOList, total);
+    }
+
+    @Override
+    public CursorPageVO<ArticlePreviewVO> cursorPreviewArticles(CursorReq cursorReq, List<Long> tagIds, TagMatchEnum tagMatch) {
+        //在标签位图上按文章id倒序定位游标, 多取一条判断是否还有下一页, 只查询当前页的文章
+        ArticleCursorDTO cursor = CursorUtils.decodeArticleCursor(cursorReq.getCursor());
+        int size = cursorReq.getSize().intValue();
+        RoaringBitmap articleBitmap = articleTagIndex.matchVisibleArticles(tagIds, tagMatch);
+        List<Long> articleIds = ArticleTagIndex.seekDescending(articleBitmap, Objects.isNull(cursor) ? null : cursor.getId(), size + 1);
+        boolean hasMore = articleIds.size() > size;
+        List<ArticlePO> articlePOList = listPreviewArticles(hasMore ? articleIds.subList(0, size) : articleIds);
+
+        String nextCursor = null;
+        if (hasMore && !articlePOList.isEmpty()) {
+            ArticlePO lastArticlePO = articlePOList.get(articlePOList.size() - 1);
+            nextCursor = CursorUtils.encodeArticleCursor(
+                    new ArticleCursorDTO(lastArticlePO.getIsTop(), lastArticlePO.getCreateTime(), lastArticlePO.getId()));
+        }
+
+        List<ArticlePreviewVO> articlePreviewVOList = mappingFactory.getArticleMapping(articlePOList)
+                .mapCategory().mapTags().parallelRun()
+                .mappingList(articleConverter::toArticlePreviewVO);
+        return new CursorPageVO<>(articlePreviewVOList, nextCursor, Objects.nonNull(nextCursor));
     }
 
     @Override
     public ArticleBackgroundVO getBackgroundArticle(Long articleId) {
         ArticlePO articlePO = getById(articleId);
         Optional.ofNullable(articlePO).orElseThrow(() -> new BizException(String.format("id为%d的文章不存在", articleId)));
+        articlePO.setArticleContent(articleManager.getArticleContents(List.of(articleId)).get(articleId));
 
         return mappingFactory.getArticleMapping(List.of(articlePO))
                 .mapCategory().mapTags().parallelRun()
@@ -187,8 +321,16 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
     }
 
     @Override
-    public PageVO<ArticleDigestBackgroundVO> pageBackgroundArticles(PageReq pageReq, ArticleQueryReq articleQueryReq) {
+    public CompletableFuture<PageVO<ArticleDigestBackgroundVO>> pageBackgroundArticles(PageReq pageReq, ArticleQueryReq articleQueryReq) {
         List<Long> articleIds = articleManager.listArticleIds(Collections.singletonList(articleQueryReq.getTagId()));
+        boolean hasKeywords = StringUtils.hasText(articleQueryReq.getKeywords());
+        List<Long> keywordsArticleIds = hasKeywords ?
+                articleSearchEngine.search(articleQueryReq.getKeywords(), false, BACKGROUND_SEARCH_LIMIT) :
+                Collections.emptyList();
+        if (hasKeywords && keywordsArticleIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new PageVO<>(Collections.emptyList(), 0L));
+        }
+
         Page<ArticlePO> articlePOPage = lambdaQuery()
                 .select(ArticlePO::getId, ArticlePO::getCategoryId, ArticlePO::getArticleTitle,
                         ArticlePO::getArticleCover, ArticlePO::getArticleStatus, ArticlePO::getArticleType,
@@ -198,16 +340,15 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
                 .eq(Objects.nonNull(articleQueryReq.getArticleType()), ArticlePO::getArticleType, articleQueryReq.getArticleType())
                 .eq(Objects.nonNull(articleQueryReq.getIsDeleted()), ArticlePO::getIsDeleted, articleQueryReq.getIsDeleted())
                 .in(Objects.nonNull(articleQueryReq.getTagId()), ArticlePO::getId, articleIds)
-                .and(StringUtils.hasText(articleQueryReq.getKeywords()), q -> q.apply(ArticlePO.FULL_MATCH, articleQueryReq.getKeywords()))
-                .page(pageReq.getPager());
+                .in(hasKeywords, ArticlePO::getId, keywordsArticleIds)
+                .page(Boolean.TRUE.equals(articleQueryReq.getApproximateCount()) ? pageReq.getApproximatePager() : pageReq.getPager());
 
         VerifyUtils.checkIPage(articlePOPage);
 
-        //获取文章分类信息, 标签信息, 热度信息
-        List<ArticleDigestBackgroundVO> articleDigestBackgroundVOList = mappingFactory.getArticleMapping(articlePOPage.getRecords())
-                .mapCategory().mapTags().mapHotIndex(articleManager::getHotIndex).parallelRun()
-                .mappingList(articleConverter::toArticleDigestBackgroundVO);
-        return new PageVO<>(articleDigestBackgroundVOList, articlePOPage.getTotal());
+        //获取文章分类信息, 标签信息, 热度信息, 热度信息超时时降级为0
+        return mappingFactory.getArticleMapping(articlePOPage.getRecords())
+                .mapCategory().mapTags().mapHotIndex(articleManager::getHotIndex).asyncRun()
+                .thenApply(handler -> new PageVO<>(handler.mappingList(articleConverter::toArticleDigestBackgroundVO), articlePOPage.getTotal()));
     }
 
     @Override
@@ -215,22 +356,91 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
         return uploadProvider.uploadFile(FilePathEnum.ARTICLE.getPath(), image);
     }
 
+    @SneakyThrows
     @Override
-    public boolean likeArticle(Long articleId, Boolean like) {
+    public ArticleImportVO importArticles(MultipartFile archive) {
         Long uid = httpContext.getCurrentContextDTO().getUid();
-        String articleSid = articleId.toString();
-        if (like && !userManager.isLikedArticle(uid, articleSid)) {
-            userManager.saveLikedArticle(uid, articleSid);
-            articleManager.updateLikeCount(articleId, 1L);
-            return true;
+        String defaultArticleCover = webConfigManager.getWebSiteConfig(WebsiteConfigPO::getArticleCover);
+
+        //顺序读取压缩包, 文件解析与内容概要计算并行执行, 每攒够一批写入一次
+        ArticleImportVO articleImportVO = new ArticleImportVO(0, 0, new ArrayList<>());
+        List<CompletableFuture<ArticleImportDTO>> parseFutures = new ArrayList<>();
+        long pendingBytes = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(archive.getInputStream(), StandardCharsets.UTF_8)) {
+            ZipEntry zipEntry;
+            while (Objects.nonNull(zipEntry = zipInputStream.getNextEntry())) {
+                String fileName = zipEntry.getName();
+                if (zipEntry.isDirectory() || fileName.startsWith("__MACOSX/") || !fileName.toLowerCase(Locale.ROOT).endsWith(".md")) {
+                    continue;
+                }
+
+                byte[] bytes = zipInputStream.readNBytes(IMPORT_FILE_MAX_BYTES + 1);
+                if (bytes.length > IMPORT_FILE_MAX_BYTES) {
+                    addSkippedFile(articleImportVO, fileName);
+                    continue;
+                }
+
+                pendingBytes += bytes.length;
+                parseFutures.add(CompletableFuture.supplyAsync(() -> parseImportArticle(fileName, bytes), taskExecutor));
+                if (parseFutures.size() >= IMPORT_BATCH_SIZE || pendingBytes >= IMPORT_BATCH_BYTES) {
+                    importArticleBatch(parseFutures, uid, defaultArticleCover, articleImportVO);
+                    parseFutures.clear();
+                    pendingBytes = 0;
+                }
+            }
         }
+        importArticleBatch(parseFutures, uid, defaultArticleCover, articleImportVO);
+        return articleImportVO;
+    }
 
-        if (!like && userManager.isLikedArticle(uid, articleSid)) {
-            userManager.deleteLikedArticle(uid, articleSid);
-            articleManager.updateLikeCount(articleId, -1L);
-            return true;
-        }
-        return false;
+    @Override
+    public ResponseBodyEmitter exportArticles() {
+        //导出内容包含草稿与私密文章, 接口权限由资源权限控制, 这里要求已登录并记录导出者
+        Long uid = httpContext.getCurrentContextDTO().getUid();
+        log.info("用户{}导出全部文章", uid);
+        Map<Long, String> categoryNameMap = Db.lambdaQuery(CategoryPO.class)
+                .select(CategoryPO::getId, CategoryPO::getCategoryName).list().stream()
+                .collect(Collectors.toMap(CategoryPO::getId, CategoryPO::getCategoryName));
+        Map<Long, String> tagNameMap = Db.lambdaQuery(TagPO.class)
+                .select(TagPO::getId, TagPO::getTagName).list().stream()
+                .collect(Collectors.toMap(TagPO::getId, TagPO::getTagName));
+
+        //游标遍历期间连接被独占, 标签从内存索引中获取, 分类与标签名预先加载
+        StreamingResponseBody body = outputStream -> {
+            ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Cursor<ArticlePO> articlePOCursor = baseMapper.cursorArticles()) {
+                    for (ArticlePO articlePO : articlePOCursor) {
+                        List<String> tagNames = Arrays.stream(articleTagIndex.getTagIds(articlePO.getId()))
+                                .mapToObj(tagNameMap::get).filter(Objects::nonNull).collect(Collectors.toList());
+                        ArticleReq articleReq = new ArticleReq()
+                                .setArticleTitle(articlePO.getArticleTitle())
+                                .setArticleContent(articlePO.getArticleContent())
+                                .setArticleCover(articlePO.getArticleCover())
+                                .setArticleStatus(articlePO.getArticleStatus())
+                                .setArticleType(articlePO.getArticleType())
+                                .setCategoryName(categoryNameMap.get(articlePO.getCategoryId()))
+                                .setTagNames(tagNames)
+                                .setOriginalUrl(articlePO.getOriginalUrl())
+                                .setIsTop(articlePO.getIsTop());
+
+                        zipOutputStream.putNextEntry(new ZipEntry("articles/" + articlePO.getId() + ".md"));
+                        zipOutputStream.write(MarkdownUtils.formatArticle(articleReq, articlePO.getCreateTime()).getBytes(StandardCharsets.UTF_8));
+                        zipOutputStream.closeEntry();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            zipOutputStream.finish();
+        };
+        return ResponseBodyEmitterOutputStream.emit(body, EXPORT_MEDIA_TYPE, EXPORT_TIMEOUT, taskExecutor);
+    }
+
+    @Override
+    public boolean likeArticle(Long articleId, Boolean like) {
+        Long uid = httpContext.getCurrentContextDTO().getUid();
+        return articleManager.toggleLike(uid, articleId, like);
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -246,14 +456,23 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
                 List<Long> willCancelTopArticleIds = topArticlePOList.subList(2, topArticlePOList.size()).stream()
                         .map(ArticlePO::getId).collect(Collectors.toList());
                 lambdaUpdate().set(ArticlePO::getIsTop, false).in(ArticlePO::getId, willCancelTopArticleIds).update();
+                applicationEventPublisher.publishEvent(new ArticleChangeEvent(this, willCancelTopArticleIds));
             }
         }
-        return lambdaUpdate().set(ArticlePO::getIsTop, isTop).eq(ArticlePO::getId, articleId).update();
+        boolean isUpdateSuccess = lambdaUpdate().set(ArticlePO::getIsTop, isTop).eq(ArticlePO::getId, articleId).update();
+        if (isUpdateSuccess) {
+            applicationEventPublisher.publishEvent(new ArticleChangeEvent(this, List.of(articleId)));
+        }
+        return isUpdateSuccess;
     }
 
     @Override
     public boolean updateArticleIsDeleted(Long articleId, Boolean isDeleted) {
-        return lambdaUpdate().set(ArticlePO::getIsDeleted, isDeleted).eq(ArticlePO::getId, articleId).update();
+        boolean isUpdateSuccess = lambdaUpdate().set(ArticlePO::getIsDeleted, isDeleted).eq(ArticlePO::getId, articleId).update();
+        if (isUpdateSuccess) {
+            applicationEventPublisher.publishEvent(new ArticleChangeEvent(this, List.of(articleId)));
+        }
+        return isUpdateSuccess;
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -275,7 +494,16 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
         //保存或更新文章
         Long uid = httpContext.getCurrentContextDTO().getUid();
         ArticlePO articlePO = articleConverter.toArticlePO(articleReq, uid, categoryPO.getId());
+
+        //写入时预先计算摘要, 字数, 阅读时长与目录, 列表查询无需读取文章内容
+        ArticleContentSummaryDTO articleContentSummaryDTO = MarkdownUtils.summarize(articlePO.getArticleContent());
+        articlePO.setArticleContentDigest(articleContentSummaryDTO.getArticleContentDigest())
+                .setWordCount(articleContentSummaryDTO.getWordCount())
+                .setReadingTime(articleContentSummaryDTO.getReadingTime())
+                .setArticleToc(articleContentSummaryDTO.getArticleToc());
         saveOrUpdate(articlePO);
+        articleManager.saveArticleContents(Map.of(articlePO.getId(), articlePO.getArticleContent()));
+        applicationEventPublisher.publishEvent(new ArticleChangeEvent(this, List.of(articlePO.getId())));
 
         //保存文章标签
         return articleManager.saveTagsAndMapping(articleReq.getTagNames(), articlePO.getId());
@@ -287,11 +515,225 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, ArticlePO> im
         boolean isRemoveSuccess = lambdaUpdate().eq(ArticlePO::getIsDeleted, true).in(ArticlePO::getId, articleIds).remove();
         if (isRemoveSuccess) {
             articleManager.deleteTagsMapping(articleIds);
+            articleManager.deleteArticleContents(articleIds);
+            applicationEventPublisher.publishEvent(new ArticleChangeEvent(this, articleIds));
         }
         return isRemoveSuccess;
     }
-}
 
+    /**
+     * 解析待导入的文章, 不满足文章校验规则(缺少内容, 分类或标签, 字段超长等)的文件视为无效
+     *
+     * @param fileName 文件名
+     * @param bytes    文件内容
+     * @return 待导入的文章
+     */
+    private ArticleImportDTO parseImportArticle(String fileName, byte[] bytes) {
+        try {
+            String defaultTitle = StringUtils.stripFilenameExtension(Objects.requireNonNull(StringUtils.getFilename(fileName)));
+            String markdown = new String(bytes, StandardCharsets.UTF_8);
+            ArticleReq articleReq = MarkdownUtils.parseArticle(markdown, defaultTitle);
+            Set<ConstraintViolation<ArticleReq>> violations = validator.validate(articleReq);
+            if (!violations.isEmpty()) {
+                log.warn("文章导入文件{}校验失败: {}", fileName, violations.iterator().next().getMessage());
+                return new ArticleImportDTO(fileName, null, null, null);
+            }
+            return new ArticleImportDTO(fileName, articleReq, MarkdownUtils.summarize(articleReq.getArticleContent()),
+                    MarkdownUtils.parseCreateTime(markdown));
+        } catch (RuntimeException e) {
+            log.warn("文章导入文件{}解析失败: {}", fileName, e.getMessage());
+            return new ArticleImportDTO(fileName, null, null, null);
+        }
+    }
+
+    /**
+     * 在一个事务中写入一批文章, 写入失败时整批回滚并计入跳过
+     *
+     * @param parseFutures        文章解析任务
+     * @param uid                 用户id
+     * @param defaultArticleCover 默认文章封面
+     * @param articleImportVO     导入结果
+     */
+    private void importArticleBatch(List<CompletableFuture<ArticleImportDTO>> parseFutures, Long uid, String defaultArticleCover,
+                                    ArticleImportVO articleImportVO) {
+        List<ArticleImportDTO> articleImportDTOList = new ArrayList<>(parseFutures.size());
+        parseFutures.stream().map(CompletableFuture::join).forEach(articleImportDTO -> {
+            if (Objects.isNull(articleImportDTO.getArticleReq())) {
+                addSkippedFile(articleImportVO, articleImportDTO.getFileName());
+            } else {
+                articleImportDTOList.add(articleImportDTO);
+            }
+        });
+        if (articleImportDTOList.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveImportArticles(articleImportDTOList, uid, defaultArticleCover));
+        } catch (DataAccessException e) {
+            //整批回滚, 之前的批次已提交, 本批文件计入跳过
+            log.error("文章导入批次写入失败, 跳过本批{}个文件", articleImportDTOList.size(), e);
+            articleImportDTOList.forEach(articleImportDTO -> addSkippedFile(articleImportVO, articleImportDTO.getFileName()));
+            return;
+        }
+        articleImportVO.setImportedCount(articleImportVO.getImportedCount() + articleImportDTOList.size());
+    }
+
+    /**
+     * 写入一批文章, 分类, 标签与标签映射均批量写入, 需要在事务中调用
+     *
+     * @param articleImportDTOList 待导入的文章
+     * @param uid                  用户id
+     * @param defaultArticleCover  默认文章封面
+     */
+    private void saveImportArticles(List<ArticleImportDTO> articleImportDTOList, Long uid, String defaultArticleCover) {
+        List<ArticleReq> articleReqList = articleImportDTOList.stream().map(ArticleImportDTO::getArticleReq).collect(Collectors.toList());
+        Map<String, Long> categoryIdMap = articleManager.saveCategories(articleReqList.stream()
+                .map(ArticleReq::getCategoryName).collect(Collectors.toList()));
+        Map<String, Long> tagIdMap = articleManager.saveTags(articleReqList.stream()
+                .flatMap(articleReq -> articleReq.getTagNames().stream()).collect(Collectors.toList()));
+
+        List<ArticlePO> articlePOList = articleImportDTOList.stream().map(articleImportDTO -> {
+            ArticleReq articleReq = articleImportDTO.getArticleReq();
+            if (!StringUtils.hasText(articleReq.getArticleCover())) {
+                articleReq.setArticleCover(defaultArticleCover);
+            }
+            ArticleContentSummaryDTO articleContentSummaryDTO = articleImportDTO.getArticleContentSummaryDTO();
+            Long categoryId = categoryIdMap.get(articleReq.getCategoryName().toLowerCase(Locale.ROOT));
+            return articleConverter.toArticlePO(articleReq, uid, categoryId)
+                    .setIsTop(false)
+                    .setIsDeleted(false)
+                    .setArticleContentDigest(articleContentSummaryDTO.getArticleContentDigest())
+                    .setWordCount(articleContentSummaryDTO.getWordCount())
+                    .setReadingTime(articleContentSummaryDTO.getReadingTime())
+                    .setArticleToc(articleContentSummaryDTO.getArticleToc());
+        }).collect(Collectors.toList());
+        saveBatch(articlePOList, IMPORT_BATCH_SIZE);
+        articleManager.saveArticleContents(articlePOList.stream()
+                .collect(Collectors.toMap(ArticlePO::getId, ArticlePO::getArticleContent)));
+
+        //保留原发表时间, 置顶按置顶规则逐篇设置, 超出置顶数量限制时取消较早的置顶
+        Map<Long, LocalDateTime> createTimeMap = new HashMap<>();
+        List<Long> topArticleIds = new ArrayList<>();
+        for (int i = 0; i < articlePOList.size(); i++) {
+            Long articleId = articlePOList.get(i).getId();
+            ArticleImportDTO articleImportDTO = articleImportDTOList.get(i);
+            if (Objects.nonNull(articleImportDTO.getCreateTime())) {
+                createTimeMap.put(articleId, articleImportDTO.getCreateTime());
+            }
+            if (Boolean.TRUE.equals(articleImportDTO.getArticleReq().getIsTop())) {
+                topArticleIds.add(articleId);
+            }
+        }
+        if (!createTimeMap.isEmpty()) {
+            baseMapper.updateCreateTimeBatch(createTimeMap);
+        }
+        topArticleIds.forEach(articleId -> updateArticleIsTop(articleId, true));
+
+        Map<Long, List<Long>> articleId2TagIds = new HashMap<>();
+        for (int i = 0; i < articlePOList.size(); i++) {
+            List<Long> tagIds = articleReqList.get(i).getTagNames().stream()
+                    .map(tagName -> tagIdMap.get(tagName.toLowerCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+            articleId2TagIds.put(articlePOList.get(i).getId(), tagIds);
+        }
+        articleManager.saveTagsMapping(articleId2TagIds);
+
+        List<Long> articleIds = articlePOList.stream().map(ArticlePO::getId).collect(Collectors.toList());
+        applicationEventPublisher.publishEvent(new ArticleChangeEvent(this, articleIds));
+    }
+
+    private void addSkippedFile(ArticleImportVO articleImportVO, String fileName) {
+        articleImportVO.setSkippedCount(articleImportVO.getSkippedCount() + 1);
+        if (articleImportVO.getSkippedFileNames().size() < IMPORT_SKIPPED_NAMES_LIMIT) {
+            articleImportVO.getSkippedFileNames().add(fileName);
+        }
+    }
+
+    /**
+     * 组装文章详情, 点赞量与浏览量变化频繁, 不包含在内
+     *
+     * @param articleId 文章id
+     * @return 文章详情, 不存在时返回 {@code null}
+     */
+    private ArticleVO getArticle(Long articleId) {
+        ArticleVO articleVO = articleManager.getArticleCache(articleId, id -> {
+            //缓存均未命中说明文章可能已在其他节点变更, 绕过二级缓存读取
+            ArticlePO articlePO = baseMapper.selectListUncached(Wrappers.lambdaQuery(ArticlePO.class)
+                    .select(ArticlePO.class, tableFieldInfo -> true)
+                    .eq(ArticlePO::getId, id)).stream().findFirst().orElse(null);
+            if (Objects.isNull(articlePO)) {
+                return null;
+            }
+            articlePO.setArticleContent(articleManager.getArticleContents(List.of(id)).get(id));
+            return mappingFactory.getArticleMapping(List.of(articlePO))
+                    .mapCategory().mapTags().parallelRun()
+                    .mappingOne(articleConverter::toArticleVO);
+        });
+        if (Objects.isNull(articleVO)) {
+            return null;
+        }
+
+        //上一篇, 下一篇与最新文章均从内存索引中获取
+        articleVO.setPrevArticle(articleOutlineIndex.getPrevArticle(articleId))
+                .setNextArticle(articleOutlineIndex.getNextArticle(articleId))
+                .setNewestRecommendArticles(articleOutlineIndex.listNewestArticles(5));
 
+        //相关文章从标签位图索引中获取
+        List<Long> relatedArticleIds = articleManager.listRelatedArticleIds(articleId, 6);
+        articleVO.setRelatedRecommendArticles(articleOutlineIndex.listArticles(relatedArticleIds));
+        return articleVO;
+    }
+
+    /**
+     * 按给定顺序查询文章预览所需字段, 忽略已不存在的文章
+     *
+     * @param articleIds 文章id列表
+     * @return 文章列表
+     */
+    private List<ArticlePO> listPreviewArticles(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ArticlePO> articlePOMap = lambdaQuery()
+                .select(ArticlePO::getId, ArticlePO::getCategoryId, ArticlePO::getArticleTitle,
+                        ArticlePO::getArticleCover, ArticlePO::getIsTop, ArticlePO::getCreateTime)
+                .in(ArticlePO::getId, articleIds)
+                .list().stream()
+                .collect(Collectors.toMap(ArticlePO::getId, Function.identity()));
+        return articleIds.stream().map(articlePOMap::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
 
+    /**
+     * 按 (发表时间, 文章id) 倒序进行游标分页, 以上一页最后一条记录为起点定位, 不查询总数
+     * <p>
+     * 多查询一条记录用于判断是否还有下一页, 查询条件中需要选择 isTop, createTime, id 字段
+     * </p>
+     *
+     * @param queryWrapper 查询条件
+     * @param cursorReq    游标分页信息
+     * @return 文章分页
+     */
+    private CursorPageVO<ArticlePO> seekArticles(LambdaQueryChainWrapper<ArticlePO> queryWrapper, CursorReq cursorReq) {
+        ArticleCursorDTO cursor = CursorUtils.decodeArticleCursor(cursorReq.getCursor());
+        int size = cursorReq.getSize().intValue();
+        List<ArticlePO> articlePOList = queryWrapper
+                .and(Objects.nonNull(cursor), q -> q.lt(ArticlePO::getCreateTime, cursor.getCreateTime())
+                        .or(w -> w.eq(ArticlePO::getCreateTime, cursor.getCreateTime()).lt(ArticlePO::getId, cursor.getId())))
+                .orderByDesc(ArticlePO::getCreateTime)
+                .orderByDesc(ArticlePO::getId)
+                .last("LIMIT " + (size + 1))
+                .list();
 
+        boolean hasMore = articlePOList.size() > size;
+        List<ArticlePO> records = hasMore ? articlePOList.subList(0, size) : articlePOList;
+        String nextCursor = null;
+        if (hasMore) {
+            ArticlePO lastArticlePO = records.get(records.size() - 1);
+            nextCursor = CursorUtils.encodeArticleCursor(
+                    new ArticleCursorDTO(lastArticlePO.getIsTop(), lastArticlePO.getCreateTime(), lastArticlePO.getId()));
+        }
+        return new CursorPageVO<>(records, nextCursor, hasMore);
+    }
+}
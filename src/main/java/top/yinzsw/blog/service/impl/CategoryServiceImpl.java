@@ -5,9 +5,11 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import top.yinzsw.blog.core.index.ReferenceDataSnapshot;
 import top.yinzsw.blog.core.maps.MappingFactory;
 import top.yinzsw.blog.exception.BizException;
 import top.yinzsw.blog.manager.CategoryManager;
+import top.yinzsw.blog.manager.TableVersionManager;
 import top.yinzsw.blog.mapper.CategoryMapper;
 import top.yinzsw.blog.model.converter.CategoryConverter;
 import top.yinzsw.blog.model.po.CategoryPO;
@@ -17,6 +19,7 @@ import top.yinzsw.blog.model.vo.CategoryDetailVO;
 import top.yinzsw.blog.model.vo.CategoryVO;
 import top.yinzsw.blog.model.vo.PageVO;
 import top.yinzsw.blog.service.CategoryService;
+import top.yinzsw.blog.util.TransactionUtils;
 import top.yinzsw.blog.util.VerifyUtils;
 
 import java.util.List;
@@ -33,6 +36,8 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, CategoryPO>
     private final MappingFactory mappingFactory;
     private final CategoryManager categoryManager;
     private final CategoryConverter categoryConverter;
+    private final TableVersionManager tableVersionManager;
+    private final ReferenceDataSnapshot referenceDataSnapshot;
 
     @Override
     public PageVO<CategoryDetailVO> pageCategories(PageReq pageReq) {
@@ -88,7 +93,10 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, CategoryPO>
         }
 
         CategoryPO categoryPO = categoryConverter.toCategoryPO(categoryReq);
-        return saveOrUpdate(categoryPO);
+        boolean isSaveSuccess = saveOrUpdate(categoryPO);
+        tableVersionManager.updateVersion(CategoryPO.class);
+        TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
+        return isSaveSuccess;
     }
 
     @Override
@@ -97,6 +105,9 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, CategoryPO>
         if (hasUseArticle) {
             throw new BizException("该分类下存在文章, 删除失败");
         }
-        return lambdaUpdate().in(CategoryPO::getId, categoryIds).remove();
+        boolean isRemoveSuccess = lambdaUpdate().in(CategoryPO::getId, categoryIds).remove();
+        tableVersionManager.updateVersion(CategoryPO.class);
+        TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
+        return isRemoveSuccess;
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import top.yinzsw.blog.manager.TableVersionManager;
 import top.yinzsw.blog.mapper.FriendLinkMapper;
 import top.yinzsw.blog.model.converter.FriendLinkConverter;
 import top.yinzsw.blog.model.po.FriendLinkPO;
@@ -26,6 +27,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FriendLinkServiceImpl extends ServiceImpl<FriendLinkMapper, FriendLinkPO> implements FriendLinkService {
     private final FriendLinkConverter friendLinkConverter;
+    private final TableVersionManager tableVersionManager;
 
     @Override
     public PageVO<FriendLinkVO> pageSearchFriendLinks(PageReq pageReq, String keywords) {
@@ -44,12 +46,16 @@ public class FriendLinkServiceImpl extends ServiceImpl<FriendLinkMapper, FriendL
     @Override
     public boolean saveOrUpdateFriendLink(FriendLinkReq friendLinkReq) {
         FriendLinkPO friendLinkPO = friendLinkConverter.toFriendLinkPO(friendLinkReq);
-        return saveOrUpdate(friendLinkPO);
+        boolean isSaveSuccess = saveOrUpdate(friendLinkPO);
+        tableVersionManager.updateVersion(FriendLinkPO.class);
+        return isSaveSuccess;
     }
 
     @Override
     public boolean deleteFriendLinks(List<Long> friendLinkIds) {
-        return removeByIds(friendLinkIds);
+        boolean isRemoveSuccess = removeByIds(friendLinkIds);
+        tableVersionManager.updateVersion(FriendLinkPO.class);
+        return isRemoveSuccess;
     }
 }
 
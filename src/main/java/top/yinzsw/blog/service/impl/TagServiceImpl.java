@@ -5,8 +5,10 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import top.yinzsw.blog.core.index.ReferenceDataSnapshot;
 import top.yinzsw.blog.core.maps.MappingFactory;
 import top.yinzsw.blog.exception.BizException;
+import top.yinzsw.blog.manager.TableVersionManager;
 import top.yinzsw.blog.manager.TagManager;
 import top.yinzsw.blog.mapper.TagMapper;
 import top.yinzsw.blog.model.converter.TagConverter;
@@ -17,6 +19,7 @@ import top.yinzsw.blog.model.vo.PageVO;
 import top.yinzsw.blog.model.vo.TagBackgroundSearchVO;
 import top.yinzsw.blog.model.vo.TagVO;
 import top.yinzsw.blog.service.TagService;
+import top.yinzsw.blog.util.TransactionUtils;
 import top.yinzsw.blog.util.VerifyUtils;
 
 import java.util.List;
@@ -33,6 +36,8 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, TagPO> implements Tag
     private final TagManager tagManager;
     private final TagConverter tagConverter;
     private final MappingFactory mappingFactory;
+    private final TableVersionManager tableVersionManager;
+    private final ReferenceDataSnapshot referenceDataSnapshot;
 
     @Override
     public PageVO<TagVO> pageTags(PageReq pageReq) {
@@ -80,7 +85,10 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, TagPO> implements Tag
         }
 
         TagPO tagPO = tagConverter.toTagPO(tagReq);
-        return saveOrUpdate(tagPO);
+        boolean isSaveSuccess = saveOrUpdate(tagPO);
+        tableVersionManager.updateVersion(TagPO.class);
+        TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
+        return isSaveSuccess;
     }
 
     @Override
@@ -89,7 +97,10 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, TagPO> implements Tag
         if (hasUseArticle) {
             throw new BizException("该标签下存在文章, 删除失败");
         }
-        return lambdaUpdate().in(TagPO::getId, tagIds).remove();
+        boolean isRemoveSuccess = lambdaUpdate().in(TagPO::getId, tagIds).remove();
+        tableVersionManager.updateVersion(TagPO.class);
+        TransactionUtils.runAfterCommit(referenceDataSnapshot::refresh);
+        return isRemoveSuccess;
     }
 }
 
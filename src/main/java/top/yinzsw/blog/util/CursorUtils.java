@@ -0,0 +1,57 @@
+package top.yinzsw.blog.util;
+
+import org.springframework.util.StringUtils;
+import top.yinzsw.blog.exception.BizException;
+import top.yinzsw.blog.model.dto.ArticleCursorDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标工具类
+ * <p>
+ * 游标对客户端不透明, 内容为 {@code 是否置顶|发表时间|文章id} 的 Base64Url 编码
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/04
+ */
+
+public class CursorUtils {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 编码文章游标
+     *
+     * @param articleCursorDTO 文章游标
+     * @return 游标字符串
+     */
+    public static String encodeArticleCursor(ArticleCursorDTO articleCursorDTO) {
+        String cursor = String.join(SEPARATOR,
+                String.valueOf(articleCursorDTO.getIsTop()),
+                articleCursorDTO.getCreateTime().toString(),
+                articleCursorDTO.getId().toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码文章游标
+     *
+     * @param cursor 游标字符串
+     * @return 文章游标, 游标为空时返回 {@code null}
+     */
+    public static ArticleCursorDTO decodeArticleCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            Boolean isTop = "null".equals(parts[0]) ? null : Boolean.valueOf(parts[0]);
+            return new ArticleCursorDTO(isTop, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BizException("无效的分页游标");
+        }
+    }
+}
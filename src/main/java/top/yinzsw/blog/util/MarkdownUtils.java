@@ -0,0 +1,256 @@
+package top.yinzsw.blog.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.StringUtils;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import top.yinzsw.blog.enums.ArticleStatusEnum;
+import top.yinzsw.blog.enums.ArticleTypeEnum;
+import top.yinzsw.blog.model.dto.ArticleContentSummaryDTO;
+import top.yinzsw.blog.model.request.ArticleReq;
+import top.yinzsw.blog.model.vo.ArticleTocVO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Markdown 工具类
+ *
+ * @author yinzsW
+ * @since 23/02/09
+ */
+
+public class MarkdownUtils {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 摘要最大长度(字符)
+     */
+    private static final int DIGEST_LENGTH = 200;
+
+    /**
+     * 阅读速度: 中文每分钟字数, 其他语言每分钟词数
+     */
+    private static final int CJK_CHARS_PER_MINUTE = 300;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private static final Pattern CODE_FENCE = Pattern.compile("^\\s*(```|~~~)");
+    private static final Pattern HEADING = Pattern.compile("^\\s{0,3}(#{1,6})\\s+(.+?)\\s*#*\\s*$");
+    private static final Pattern HORIZONTAL_RULE = Pattern.compile("^\\s*([-*_=|:]\\s*){3,}$");
+    private static final Pattern LINE_PREFIX = Pattern.compile("^\\s*(#{1,6}\\s+|>\\s?|[-*+]\\s+(\\[[ xX]]\\s+)?|\\d+\\.\\s+)+");
+    private static final Pattern IMAGE = Pattern.compile("!\\[[^]]*]\\([^)]*\\)");
+    private static final Pattern LINK = Pattern.compile("\\[([^]]*)]\\([^)]*\\)");
+    private static final Pattern INLINE_CODE = Pattern.compile("`([^`]*)`");
+    private static final Pattern EMPHASIS = Pattern.compile("(\\*{1,3}|~~)(\\S(?:.*?\\S)?)\\1");
+    //下划线强调两侧不能是字母或数字(CommonMark), 避免 snake_case 之类的标识符被去掉下划线
+    private static final Pattern UNDERSCORE_EMPHASIS = Pattern.compile("(?<![\\p{L}\\p{N}_])(_{1,3})(\\S(?:.*?\\S)?)\\1(?![\\p{L}\\p{N}_])");
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern CJK_CHAR = Pattern.compile("\\p{IsHan}");
+    private static final Pattern NON_CJK_WORD = Pattern.compile("[\\p{L}\\p{N}&&[^\\p{IsHan}]]+");
+    private static final Pattern FRONT_MATTER = Pattern.compile("\\A\\uFEFF?---\\r?\\n(.*?)\\r?\\n---[ \\t]*(\\r?\\n|\\z)", Pattern.DOTALL);
+    private static final Pattern ANCHOR_EXCLUDED = Pattern.compile("[^\\p{L}\\p{N}\\s_-]");
+
+    /**
+     * 计算文章内容概要: 纯文本摘要, 字数, 阅读时长, 目录
+     *
+     * @param markdown Markdown 文本
+     * @return 内容概要
+     */
+    public static ArticleContentSummaryDTO summarize(String markdown) {
+        List<ArticleTocVO> articleTocVOList = new ArrayList<>();
+        Map<String, Integer> anchorCountMap = new HashMap<>();
+        StringBuilder plainText = new StringBuilder();
+
+        boolean isInCodeBlock = false;
+        for (String line : Objects.toString(markdown, "").split("\\R")) {
+            if (CODE_FENCE.matcher(line).find()) {
+                isInCodeBlock = !isInCodeBlock;
+                continue;
+            }
+            if (isInCodeBlock || HORIZONTAL_RULE.matcher(line).matches()) {
+                continue;
+            }
+
+            String text = toPlainLine(line);
+            Matcher headingMatcher = HEADING.matcher(line);
+            if (headingMatcher.matches() && StringUtils.hasText(text)) {
+                String anchor = toAnchor(text);
+                int count = anchorCountMap.merge(anchor, 1, Integer::sum);
+                articleTocVOList.add(new ArticleTocVO(headingMatcher.group(1).length(), text, count > 1 ? anchor + "-" + (count - 1) : anchor));
+            }
+            if (StringUtils.hasText(text)) {
+                plainText.append(text).append(' ');
+            }
+        }
+
+        String content = plainText.toString().trim();
+        int cjkCount = count(CJK_CHAR, content);
+        int wordCount = count(NON_CJK_WORD, content);
+        int readingTime = (int) Math.ceil((double) cjkCount / CJK_CHARS_PER_MINUTE + (double) wordCount / WORDS_PER_MINUTE);
+        return new ArticleContentSummaryDTO(toDigest(content), cjkCount + wordCount, readingTime, toTocJson(articleTocVOList));
+    }
+
+    /**
+     * 解析文章目录
+     *
+     * @param articleToc 文章目录(JSON)
+     * @return 文章目录
+     */
+    public static List<ArticleTocVO> parseToc(String articleToc) {
+        if (!StringUtils.hasText(articleToc)) {
+            return Collections.emptyList();
+        }
+
+        try {
+            return OBJECT_MAPPER.readValue(articleToc, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 解析带 front-matter 的 Markdown 文章
+     * <p>
+     * 支持的字段: title, category, tags(列表或逗号分隔), cover, status, type, originalUrl, isTop, 其余字段忽略,
+     * 发表时间(createTime)通过 {@link #parseCreateTime(String)} 解析
+     * </p>
+     *
+     * @param markdown     Markdown 文本
+     * @param defaultTitle 未设置标题时使用的标题
+     * @return 文章
+     */
+    public static ArticleReq parseArticle(String markdown, String defaultTitle) {
+        Map<?, ?> frontMatter = Collections.emptyMap();
+        String content = markdown;
+        Matcher matcher = FRONT_MATTER.matcher(markdown);
+        if (matcher.find()) {
+            frontMatter = loadFrontMatter(matcher.group(1));
+            content = markdown.substring(matcher.end());
+        }
+
+        Object tags = frontMatter.get("tags");
+        List<String> tagNames = tags instanceof Collection
+                ? ((Collection<?>) tags).stream().map(String::valueOf).collect(Collectors.toList())
+                : Arrays.asList(StringUtils.tokenizeToStringArray(Objects.toString(tags, ""), ",，"));
+        String title = Objects.toString(frontMatter.get("title"), "");
+        return new ArticleReq()
+                .setArticleTitle(StringUtils.hasText(title) ? title.trim() : defaultTitle)
+                .setArticleContent(content)
+                .setCategoryName(Objects.toString(frontMatter.get("category"), "").trim())
+                .setTagNames(tagNames.stream().map(String::trim).filter(StringUtils::hasText).distinct().collect(Collectors.toList()))
+                .setArticleCover(Objects.toString(frontMatter.get("cover"), null))
+                .setArticleStatus(parseEnum(ArticleStatusEnum.class, frontMatter.get("status"), ArticleStatusEnum.PUBLIC))
+                .setArticleType(parseEnum(ArticleTypeEnum.class, frontMatter.get("type"), ArticleTypeEnum.ORIGINAL))
+                .setOriginalUrl(Objects.toString(frontMatter.get("originalUrl"), null))
+                .setIsTop(Boolean.parseBoolean(Objects.toString(frontMatter.get("isTop"), "false")));
+    }
+
+    /**
+     * 解析 front-matter 中的发表时间(createTime), 支持 ISO 格式字符串与 YAML 时间戳(按 UTC 解析)
+     *
+     * @param markdown Markdown 文本
+     * @return 发表时间, 未设置或无法解析时返回 {@code null}
+     */
+    public static LocalDateTime parseCreateTime(String markdown) {
+        Matcher matcher = FRONT_MATTER.matcher(markdown);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        Object createTime = loadFrontMatter(matcher.group(1)).get("createTime");
+        if (createTime instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) createTime).toInstant(), ZoneOffset.UTC);
+        }
+        try {
+            return Objects.isNull(createTime) ? null : LocalDateTime.parse(createTime.toString().trim().replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 生成带 front-matter 的 Markdown 文章, 可以由 {@link #parseArticle(String, String)} 重新解析
+     *
+     * @param articleReq 文章
+     * @param createTime 发表时间
+     * @return Markdown 文本
+     */
+    public static String formatArticle(ArticleReq articleReq, LocalDateTime createTime) {
+        Map<String, Object> frontMatter = new LinkedHashMap<>();
+        frontMatter.put("title", articleReq.getArticleTitle());
+        frontMatter.put("category", articleReq.getCategoryName());
+        frontMatter.put("tags", articleReq.getTagNames());
+        frontMatter.put("cover", articleReq.getArticleCover());
+        frontMatter.put("status", Objects.toString(articleReq.getArticleStatus(), null));
+        frontMatter.put("type", Objects.toString(articleReq.getArticleType(), null));
+        frontMatter.put("originalUrl", articleReq.getOriginalUrl());
+        frontMatter.put("isTop", articleReq.getIsTop());
+        frontMatter.put("createTime", Objects.toString(createTime, null));
+        frontMatter.values().removeIf(Objects::isNull);
+
+        DumperOptions dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return "---\n" + new Yaml(dumperOptions).dump(frontMatter) + "---\n" + articleReq.getArticleContent();
+    }
+
+    private static Map<?, ?> loadFrontMatter(String yaml) {
+        Object loaded = new Yaml(new SafeConstructor()).load(yaml);
+        return loaded instanceof Map ? (Map<?, ?>) loaded : Collections.emptyMap();
+    }
+
+    private static String toPlainLine(String line) {
+        String text = LINE_PREFIX.matcher(line).replaceFirst("");
+        text = IMAGE.matcher(text).replaceAll("");
+        text = LINK.matcher(text).replaceAll("$1");
+        text = INLINE_CODE.matcher(text).replaceAll("$1");
+        text = EMPHASIS.matcher(text).replaceAll("$2");
+        text = UNDERSCORE_EMPHASIS.matcher(text).replaceAll("$2");
+        text = HTML_TAG.matcher(text).replaceAll("");
+        text = HEADING.matcher(text).replaceFirst("$2");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static String toDigest(String content) {
+        if (content.codePointCount(0, content.length()) <= DIGEST_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, DIGEST_LENGTH)) + "...";
+    }
+
+    private static String toAnchor(String title) {
+        String anchor = ANCHOR_EXCLUDED.matcher(title.toLowerCase(Locale.ROOT)).replaceAll("");
+        return WHITESPACE.matcher(anchor.trim()).replaceAll("-");
+    }
+
+    private static String toTocJson(List<ArticleTocVO> articleTocVOList) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(articleTocVOList);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> enumClass, Object value, E defaultValue) {
+        String name = Objects.toString(value, "").trim().toUpperCase(Locale.ROOT);
+        return Arrays.stream(enumClass.getEnumConstants()).filter(constant -> constant.name().equals(name)).findFirst().orElse(defaultValue);
+    }
+
+    private static int count(Pattern pattern, String content) {
+        Matcher matcher = pattern.matcher(content);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
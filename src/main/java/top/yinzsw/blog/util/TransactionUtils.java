@@ -0,0 +1,33 @@
+package top.yinzsw.blog.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ *
+ * @author yinzsW
+ * @since 23/02/03
+ */
+
+public class TransactionUtils {
+
+    /**
+     * 在当前事务提交后执行任务, 当前没有事务时立即执行
+     *
+     * @param runnable 任务
+     */
+    public static void runAfterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+}
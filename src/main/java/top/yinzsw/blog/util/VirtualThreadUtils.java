@@ -0,0 +1,39 @@
+package top.yinzsw.blog.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程工具类
+ * <p>
+ * 项目以 Java 11 编译, 虚拟线程相关 API 通过反射调用, 只有在 JDK 21 及以上版本运行时可用
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/18
+ */
+
+public class VirtualThreadUtils {
+
+    /**
+     * 创建每个任务一个虚拟线程的线程池
+     *
+     * @param namePrefix 线程名前缀
+     * @return 线程池
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("虚拟线程需要 JDK 21 及以上版本, 当前版本: " + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("创建虚拟线程池失败", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- 文章热度榜换基: 把上一周期的热度按衰减系数折算后合并到当前周期, 并限制榜单长度
+-- KEYS[1] 上一周期热度榜, KEYS[2] 当前周期热度榜
+-- ARGV[1] 上一周期分数的折算系数, ARGV[2] 榜单最多保留的文章数
+-- 上一周期热度榜存在并完成合并时返回 1, 否则返回 0
+local merged = 0
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    redis.call('ZUNIONSTORE', KEYS[2], 2, KEYS[1], KEYS[2], 'WEIGHTS', ARGV[1], 1, 'AGGREGATE', 'SUM')
+    redis.call('DEL', KEYS[1])
+    merged = 1
+end
+redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[2]) + 1))
+return merged
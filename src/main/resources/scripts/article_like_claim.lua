@@ -0,0 +1,32 @@
+-- 认领一个待写回的点赞变更批次, 认领后的变更移出待写回队列, 只有认领者会写回该批次
+-- 同一时刻只允许存在一个已认领的批次, 上一批次确认后才能认领下一批次, 保证批次按入队顺序写回
+-- KEYS[1] 待持久化的点赞变更队列, KEYS[2] 已认领批次(批次id->认领时间), 批次内容保存在 KEYS[2]..':'..批次id
+-- ARGV[1] 单批次最多认领的变更数, ARGV[2] 当前时间(毫秒), ARGV[3] 新批次id, ARGV[4] 认领租期(毫秒)
+-- 存在租期内的认领时拒绝认领; 租期已过(认领者写回前宕机)时以新批次id重新认领最早的批次, 原认领者的确认不再生效
+-- 返回认领的批次id, 没有可认领的变更时返回 false
+local expireBefore = tonumber(ARGV[2]) - tonumber(ARGV[4])
+local claimed = redis.call('ZRANGE', KEYS[2], 0, -1, 'WITHSCORES')
+for i = 2, #claimed, 2 do
+    if tonumber(claimed[i]) > expireBefore then
+        return false
+    end
+end
+
+if #claimed > 0 then
+    local expiredKey = KEYS[2] .. ':' .. claimed[1]
+    redis.call('ZREM', KEYS[2], claimed[1])
+    if redis.call('EXISTS', expiredKey) == 1 then
+        redis.call('RENAME', expiredKey, KEYS[2] .. ':' .. ARGV[3])
+    end
+    redis.call('ZADD', KEYS[2], ARGV[2], ARGV[3])
+    return ARGV[3]
+end
+
+local records = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+if #records == 0 then
+    return false
+end
+redis.call('LTRIM', KEYS[1], #records, -1)
+redis.call('RPUSH', KEYS[2] .. ':' .. ARGV[3], unpack(records))
+redis.call('ZADD', KEYS[2], ARGV[2], ARGV[3])
+return ARGV[3]
@@ -0,0 +1,36 @@
+-- 文章点赞/取消点赞
+-- KEYS[1] 用户点赞过的文章集合, KEYS[2] 文章点赞量, KEYS[3] 待持久化的点赞变更队列, KEYS[4] 文章热度榜, KEYS[5] 用户点赞文章的时间
+-- ARGV[1] 文章id, ARGV[2] 1点赞 0取消点赞, ARGV[3] 变更记录(用户id:文章id:状态), ARGV[4] 点赞的热度权重,
+-- ARGV[5] 当前时间(毫秒), ARGV[6] 热度榜基准时间(毫秒), ARGV[7] 热度半衰期(毫秒)
+-- 状态发生变化时返回 1, 否则返回 0
+local function hotScore(epochMillis)
+    return tonumber(ARGV[4]) * 2 ^ ((tonumber(epochMillis) - tonumber(ARGV[6])) / tonumber(ARGV[7]))
+end
+
+local changed
+if ARGV[2] == '1' then
+    changed = redis.call('SADD', KEYS[1], ARGV[1])
+else
+    changed = redis.call('SREM', KEYS[1], ARGV[1])
+end
+if changed == 0 then
+    return 0
+end
+
+redis.call('RPUSH', KEYS[3], ARGV[3])
+if ARGV[2] == '1' then
+    redis.call('ZINCRBY', KEYS[2], 1, ARGV[1])
+    redis.call('HSET', KEYS[5], ARGV[1], ARGV[5])
+    redis.call('ZINCRBY', KEYS[4], hotScore(ARGV[5]), ARGV[1])
+    return 1
+end
+
+redis.call('ZINCRBY', KEYS[2], -1, ARGV[1])
+-- 只扣除点赞时实际加上的分数(按点赞时间折算), 不知道点赞时间或文章已不在榜单时不扣除
+local likedMillis = redis.call('HGET', KEYS[5], ARGV[1])
+redis.call('HDEL', KEYS[5], ARGV[1])
+local currentScore = redis.call('ZSCORE', KEYS[4], ARGV[1])
+if likedMillis and currentScore then
+    redis.call('ZINCRBY', KEYS[4], -math.min(hotScore(likedMillis), tonumber(currentScore)), ARGV[1])
+end
+return 1
@@ -0,0 +1,23 @@
+-- 文章浏览去重: 按小时轮换的布隆过滤器
+-- KEYS[1] 当前窗口位图, KEYS[2] 上一窗口位图
+-- ARGV[1..n-1] (访客, 文章) 对应的位下标, ARGV[n] 当前窗口位图的过期秒数
+-- 两个窗口中任意一个已包含该 (访客, 文章) 时返回 0, 否则写入当前窗口并返回 1
+local bitCount = #ARGV - 1
+local seenCurrent, seenPrevious = true, true
+for i = 1, bitCount do
+    if seenCurrent and redis.call('GETBIT', KEYS[1], ARGV[i]) == 0 then
+        seenCurrent = false
+    end
+    if seenPrevious and redis.call('GETBIT', KEYS[2], ARGV[i]) == 0 then
+        seenPrevious = false
+    end
+end
+if seenCurrent or seenPrevious then
+    return 0
+end
+
+for i = 1, bitCount do
+    redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+end
+redis.call('EXPIRE', KEYS[1], ARGV[#ARGV])
+return 1
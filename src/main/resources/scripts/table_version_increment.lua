@@ -0,0 +1,8 @@
+-- 递增数据表版本并在同一原子操作中记录本次变更的主键, 其他节点据此增量同步
+-- KEYS[1] 数据表版本, KEYS[2] 数据表变更日志(版本->"版本:主键列表")
+-- ARGV[1] 表名, ARGV[2] 以逗号分隔的变更主键, ARGV[3] 变更日志最多保留的条数
+-- 返回递增后的版本
+local version = redis.call('HINCRBY', KEYS[1], ARGV[1], 1)
+redis.call('ZADD', KEYS[2], version, version .. ':' .. ARGV[2])
+redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -tonumber(ARGV[3]) - 1)
+return version
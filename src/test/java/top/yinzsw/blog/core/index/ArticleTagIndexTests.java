@@ -0,0 +1,88 @@
+package top.yinzsw.blog.core.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import top.yinzsw.blog.enums.TagMatchEnum;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.mapper.ArticleMtmTagMapper;
+import top.yinzsw.blog.model.po.ArticleMtmTagPO;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文章标签倒排索引查询与分页测试
+ *
+ * @author yinzsW
+ * @since 23/02/20
+ */
+public class ArticleTagIndexTests {
+    private ArticleTagIndex articleTagIndex;
+
+    @BeforeEach
+    void setUp() {
+        ArticleMtmTagMapper articleMtmTagMapper = mock(ArticleMtmTagMapper.class);
+        when(articleMtmTagMapper.listAllUncached()).thenReturn(Arrays.asList(
+                new ArticleMtmTagPO(1L, 10L, null), new ArticleMtmTagPO(1L, 20L, null),
+                new ArticleMtmTagPO(2L, 10L, null), new ArticleMtmTagPO(3L, 20L, null),
+                new ArticleMtmTagPO(4L, 10L, null), new ArticleMtmTagPO(4L, 20L, null),
+                new ArticleMtmTagPO(5L, 10L, null)));
+
+        //文章5不可见
+        ArticleOutlineIndex articleOutlineIndex = mock(ArticleOutlineIndex.class);
+        when(articleOutlineIndex.getVisibleBitmap()).thenReturn(RoaringBitmap.bitmapOf(1, 2, 3, 4));
+
+        articleTagIndex = new ArticleTagIndex(articleOutlineIndex, mock(TableVersionManager.class), articleMtmTagMapper);
+    }
+
+    @Test
+    void matchAnyTag() {
+        RoaringBitmap matchBitmap = articleTagIndex.matchVisibleArticles(Arrays.asList(10L, 20L), TagMatchEnum.ANY);
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4), matchBitmap);
+    }
+
+    @Test
+    void matchAllTags() {
+        RoaringBitmap matchBitmap = articleTagIndex.matchVisibleArticles(Arrays.asList(10L, 20L, 10L), TagMatchEnum.ALL);
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 4), matchBitmap);
+    }
+
+    @Test
+    void matchUnknownTag() {
+        assertTrue(articleTagIndex.matchVisibleArticles(Arrays.asList(10L, 30L), TagMatchEnum.ALL).isEmpty());
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 4),
+                articleTagIndex.matchVisibleArticles(Arrays.asList(10L, 30L), TagMatchEnum.ANY));
+        assertTrue(articleTagIndex.matchVisibleArticles(Collections.emptyList(), TagMatchEnum.ANY).isEmpty());
+    }
+
+    @Test
+    void pageDescendingOffsets() {
+        RoaringBitmap articleBitmap = RoaringBitmap.bitmapOf(1, 3, 5, 7, 9);
+
+        assertEquals(List.of(9L, 7L), ArticleTagIndex.pageDescending(articleBitmap, 0, 2));
+        assertEquals(List.of(5L, 3L), ArticleTagIndex.pageDescending(articleBitmap, 2, 2));
+        assertEquals(List.of(1L), ArticleTagIndex.pageDescending(articleBitmap, 4, 2));
+        assertEquals(List.of(), ArticleTagIndex.pageDescending(articleBitmap, 5, 2));
+        assertEquals(List.of(), ArticleTagIndex.pageDescending(articleBitmap, 10, 2));
+    }
+
+    @Test
+    void seekDescendingCursor() {
+        RoaringBitmap articleBitmap = RoaringBitmap.bitmapOf(1, 3, 5, 7, 9);
+
+        assertEquals(List.of(9L, 7L), ArticleTagIndex.seekDescending(articleBitmap, null, 2));
+        assertEquals(List.of(5L, 3L), ArticleTagIndex.seekDescending(articleBitmap, 7L, 2));
+        assertEquals(List.of(5L, 3L), ArticleTagIndex.seekDescending(articleBitmap, 6L, 2));
+        assertEquals(List.of(9L, 7L), ArticleTagIndex.seekDescending(articleBitmap, 100L, 2));
+        assertEquals(List.of(), ArticleTagIndex.seekDescending(articleBitmap, 1L, 2));
+        assertEquals(List.of(), ArticleTagIndex.seekDescending(articleBitmap, 0L, 2));
+    }
+}
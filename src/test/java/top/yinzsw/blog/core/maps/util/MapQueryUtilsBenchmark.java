@@ -0,0 +1,83 @@
+package top.yinzsw.blog.core.maps.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import top.yinzsw.blog.model.po.ArticleMtmTagPO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * MapQueryUtils 结果组装基准测试
+ * <p>
+ * 使用合成的文章与标签映射记录(每个键平均5条记录, 值有重复), 对比原实现的装箱分组/去重与 long 特化实现, 以及键列表拆分.
+ * 不包含数据库往返, 分组并行查询的收益需要在真实数据库上测量
+ * </p>
+ *
+ * @author yinzsW
+ * @since 23/02/19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapQueryUtilsBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int keyCount;
+
+    private List<Long> keys;
+    private List<ArticleMtmTagPO> rows;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        keys = new ArrayList<>(keyCount);
+        rows = new ArrayList<>(keyCount * 5);
+        for (long tagId = 1; tagId <= keyCount; tagId++) {
+            keys.add(tagId);
+            for (int i = 0; i < 5; i++) {
+                rows.add(new ArticleMtmTagPO(random.nextLong(1, keyCount * 2L + 1), tagId, null));
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<Long, List<Long>> legacyGroupValueMap() {
+        return rows.stream().collect(Collectors.groupingBy(ArticleMtmTagPO::getTagId,
+                Collectors.mapping(ArticleMtmTagPO::getArticleId, Collectors.toList())));
+    }
+
+    @Benchmark
+    public Long2ObjectMap<long[]> primitiveGroupValueMap() {
+        return MapQueryUtils.groupLongs(rows, ArticleMtmTagPO::getTagId, ArticleMtmTagPO::getArticleId);
+    }
+
+    @Benchmark
+    public List<Long> legacyDistinctValues() {
+        return rows.stream().map(ArticleMtmTagPO::getArticleId).distinct().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] primitiveDistinctValues() {
+        return MapQueryUtils.distinctLongs(rows, ArticleMtmTagPO::getArticleId);
+    }
+
+    @Benchmark
+    public List<List<Long>> partitionKeys() {
+        return MapQueryUtils.partition(keys, MapQueryUtils.CHUNK_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MapQueryUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
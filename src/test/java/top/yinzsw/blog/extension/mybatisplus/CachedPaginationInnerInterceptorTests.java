@@ -0,0 +1,100 @@
+package top.yinzsw.blog.extension.mybatisplus;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.*;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.yinzsw.blog.manager.TableVersionManager;
+import top.yinzsw.blog.model.po.ArticlePO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 带计数缓存的分页拦截器近似计数与缓存测试
+ *
+ * @author yinzsW
+ * @since 23/02/20
+ */
+public class CachedPaginationInnerInterceptorTests {
+    private static final String SQL = "SELECT id FROM article";
+
+    private CachedPaginationInnerInterceptor interceptor;
+    private MappedStatement ms;
+    private Executor executor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        interceptor = new CachedPaginationInnerInterceptor(mock(TableVersionManager.class), Set.of(ArticlePO.class));
+
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        ResultMap resultMap = new ResultMap.Builder(configuration, "articleResultMap", ArticlePO.class, new ArrayList<>()).build();
+        ms = new MappedStatement.Builder(configuration, "article.selectPage", new StaticSqlSource(configuration, SQL), SqlCommandType.SELECT)
+                .resultMaps(List.of(resultMap))
+                .build();
+
+        executor = mock(Executor.class);
+        when(executor.createCacheKey(any(), any(), any(), any())).thenReturn(new CacheKey());
+        when(executor.query(any(), any(), any(), any(), any(), any())).thenReturn(List.of(100L), List.of(250L));
+    }
+
+    @Test
+    void approximateCountBelowLimit() {
+        String countSql = interceptor.autoCountSql(new ApproximatePage<>(1, 10, 100), SQL);
+
+        assertTrue(countSql.endsWith("LIMIT 100) TOTAL"));
+    }
+
+    @Test
+    void exactCountFromLimit() {
+        //第11页从第100条开始, 已超出计数上限
+        String countSql = interceptor.autoCountSql(new ApproximatePage<>(11, 10, 100), SQL);
+
+        assertFalse(countSql.contains("LIMIT"));
+    }
+
+    @Test
+    void countCachedPerMode() throws SQLException {
+        ApproximatePage<ArticlePO> approximatePage = new ApproximatePage<>(1, 10, 100);
+        assertTrue(willDoQuery(approximatePage));
+        assertEquals(100, approximatePage.getTotal());
+
+        ApproximatePage<ArticlePO> cachedPage = new ApproximatePage<>(2, 10, 100);
+        assertTrue(willDoQuery(cachedPage));
+        assertEquals(100, cachedPage.getTotal());
+        verify(executor, times(1)).query(any(), any(), any(), any(), any(), any());
+
+        //切换为精确计数后不能使用近似计数的缓存
+        ApproximatePage<ArticlePO> exactPage = new ApproximatePage<>(11, 10, 100);
+        assertTrue(willDoQuery(exactPage));
+        assertEquals(250, exactPage.getTotal());
+        verify(executor, times(2)).query(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void emptyCountResultIsCachedAsZero() throws SQLException {
+        reset(executor);
+        when(executor.createCacheKey(any(), any(), any(), any())).thenReturn(new CacheKey());
+        when(executor.query(any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        ApproximatePage<ArticlePO> page = new ApproximatePage<>(1, 10, 100);
+        assertFalse(willDoQuery(page));
+        assertEquals(0, page.getTotal());
+        assertFalse(willDoQuery(new ApproximatePage<>(1, 10, 100)));
+        verify(executor, times(1)).query(any(), any(), any(), any(), any(), any());
+    }
+
+    private boolean willDoQuery(ApproximatePage<ArticlePO> page) throws SQLException {
+        BoundSql boundSql = new BoundSql(ms.getConfiguration(), SQL, new ArrayList<>(), page);
+        return interceptor.willDoQuery(executor, ms, page, RowBounds.DEFAULT, null, boundSql);
+    }
+}
@@ -0,0 +1,77 @@
+package top.yinzsw.blog.extension.mybatisplus;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 压缩字符串类型处理器编解码测试
+ *
+ * @author yinzsW
+ * @since 23/02/20
+ */
+public class CompressedStringTypeHandlerTests {
+
+    @Test
+    void roundTripBelowThreshold() {
+        String value = "# 标题\n\n短文章内容 short content";
+        byte[] encoded = CompressedStringTypeHandler.encode(value);
+
+        assertEquals(0, encoded[0]);
+        assertEquals(value.getBytes(StandardCharsets.UTF_8).length + 1, encoded.length);
+        assertEquals(value, CompressedStringTypeHandler.decode(encoded));
+    }
+
+    @Test
+    void roundTripAboveThreshold() {
+        String value = "## 重复的段落 repeated paragraph\n".repeat(200);
+        byte[] encoded = CompressedStringTypeHandler.encode(value);
+
+        assertEquals(1, encoded[0]);
+        assertTrue(encoded.length < value.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(value, CompressedStringTypeHandler.decode(encoded));
+    }
+
+    @Test
+    void incompressibleValueIsStoredRaw() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 4096; i++) {
+            builder.append((char) random.nextInt(0x21, 0x7F));
+        }
+        String value = builder.toString();
+        byte[] encoded = CompressedStringTypeHandler.encode(value);
+
+        assertEquals(0, encoded[0]);
+        assertEquals(value.length() + 1, encoded.length);
+        assertEquals(value, CompressedStringTypeHandler.decode(encoded));
+    }
+
+    @Test
+    void emptyValue() {
+        byte[] encoded = CompressedStringTypeHandler.encode("");
+
+        assertArrayEquals(new byte[]{0}, encoded);
+        assertEquals("", CompressedStringTypeHandler.decode(encoded));
+        assertEquals("", CompressedStringTypeHandler.decode(new byte[0]));
+        assertNull(CompressedStringTypeHandler.decode(null));
+    }
+
+    @Test
+    void decodeMigratedRawValue() {
+        //迁移脚本以 0x00 前缀加原文写入已有文章
+        byte[] content = "迁移前的文章内容".getBytes(StandardCharsets.UTF_8);
+        byte[] migrated = new byte[content.length + 1];
+        System.arraycopy(content, 0, migrated, 1, content.length);
+
+        assertEquals("迁移前的文章内容", CompressedStringTypeHandler.decode(migrated));
+    }
+
+    @Test
+    void decodeUnknownFormat() {
+        assertThrows(IllegalStateException.class, () -> CompressedStringTypeHandler.decode(new byte[]{9, 1, 2}));
+    }
+}
@@ -0,0 +1,105 @@
+package top.yinzsw.blog.util;
+
+import org.junit.jupiter.api.Test;
+import top.yinzsw.blog.enums.ArticleStatusEnum;
+import top.yinzsw.blog.enums.ArticleTypeEnum;
+import top.yinzsw.blog.model.dto.ArticleContentSummaryDTO;
+import top.yinzsw.blog.model.request.ArticleReq;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Markdown 内容概要与文章导入导出测试
+ *
+ * @author yinzsW
+ * @since 23/02/20
+ */
+public class MarkdownUtilsTests {
+
+    @Test
+    void summarizeKeepsIntrawordUnderscores() {
+        ArticleContentSummaryDTO summary = MarkdownUtils.summarize("rename snake_case_name to *camel* _case_ and __bold__\n\n中文_不是强调_中文");
+
+        assertEquals("rename snake_case_name to camel case and bold 中文_不是强调_中文", summary.getArticleContentDigest());
+    }
+
+    @Test
+    void exportThenImport() {
+        ArticleReq exported = new ArticleReq()
+                .setArticleTitle("标题: 含冒号与 \"引号\"")
+                .setArticleContent("# 一级标题\n\n正文 `code`\n\n---\n\n分隔线之后的内容\n")
+                .setArticleCover("https://example.com/cover.png")
+                .setArticleStatus(ArticleStatusEnum.SECRET)
+                .setArticleType(ArticleTypeEnum.TRANSLATION)
+                .setCategoryName("后端")
+                .setTagNames(List.of("Java", "Spring Boot"))
+                .setOriginalUrl("https://example.com/origin")
+                .setIsTop(true);
+
+        LocalDateTime createTime = LocalDateTime.of(2023, 2, 20, 8, 30);
+        String markdown = MarkdownUtils.formatArticle(exported, createTime);
+        ArticleReq imported = MarkdownUtils.parseArticle(markdown, "默认标题");
+
+        assertEquals(exported.getArticleTitle(), imported.getArticleTitle());
+        assertEquals(exported.getArticleContent(), imported.getArticleContent());
+        assertEquals(exported.getArticleCover(), imported.getArticleCover());
+        assertEquals(exported.getArticleStatus(), imported.getArticleStatus());
+        assertEquals(exported.getArticleType(), imported.getArticleType());
+        assertEquals(exported.getCategoryName(), imported.getCategoryName());
+        assertEquals(exported.getTagNames(), imported.getTagNames());
+        assertEquals(exported.getOriginalUrl(), imported.getOriginalUrl());
+        assertEquals(true, imported.getIsTop());
+        assertEquals(createTime, MarkdownUtils.parseCreateTime(markdown));
+    }
+
+    @Test
+    void exportThenImportWithoutOptionalFields() {
+        ArticleReq exported = new ArticleReq()
+                .setArticleTitle("标题")
+                .setArticleContent("内容")
+                .setCategoryName("分类")
+                .setTagNames(List.of("标签"));
+
+        String markdown = MarkdownUtils.formatArticle(exported, null);
+        ArticleReq imported = MarkdownUtils.parseArticle(markdown, "默认标题");
+
+        assertEquals("内容", imported.getArticleContent());
+        assertNull(imported.getArticleCover());
+        assertNull(imported.getOriginalUrl());
+        assertEquals(ArticleStatusEnum.PUBLIC, imported.getArticleStatus());
+        assertEquals(ArticleTypeEnum.ORIGINAL, imported.getArticleType());
+        assertEquals(false, imported.getIsTop());
+        assertNull(MarkdownUtils.parseCreateTime(markdown));
+    }
+
+    @Test
+    void importUnquotedCreateTime() {
+        String markdown = "---\ntitle: 标题\ncreateTime: 2023-02-20 08:30:00\n---\n内容";
+
+        assertEquals(LocalDateTime.of(2023, 2, 20, 8, 30), MarkdownUtils.parseCreateTime(markdown));
+        assertNull(MarkdownUtils.parseCreateTime("---\ncreateTime: 昨天\n---\n内容"));
+    }
+
+    @Test
+    void importWithoutFrontMatter() {
+        ArticleReq imported = MarkdownUtils.parseArticle("# 标题\n\n内容", "文件名");
+
+        assertEquals("文件名", imported.getArticleTitle());
+        assertEquals("# 标题\n\n内容", imported.getArticleContent());
+        assertEquals("", imported.getCategoryName());
+        assertTrue(imported.getTagNames().isEmpty());
+    }
+
+    @Test
+    void importCommaSeparatedTags() {
+        ArticleReq imported = MarkdownUtils.parseArticle("---\ntitle: 标题\ntags: Java, Redis，Java\nstatus: unknown\n---\n内容", "文件名");
+
+        assertEquals("标题", imported.getArticleTitle());
+        assertEquals(List.of("Java", "Redis"), imported.getTagNames());
+        assertEquals(ArticleStatusEnum.PUBLIC, imported.getArticleStatus());
+        assertEquals("内容", imported.getArticleContent());
+    }
+}